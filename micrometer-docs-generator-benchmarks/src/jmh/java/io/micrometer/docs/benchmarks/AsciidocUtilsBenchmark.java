@@ -0,0 +1,79 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.docs.commons.JavaSourceSearchHelper;
+import io.micrometer.docs.commons.utils.AsciidocUtils;
+import org.jboss.forge.roaster.model.source.EnumConstantSource;
+import org.jboss.forge.roaster.model.source.JavaDocSource;
+import org.jboss.forge.roaster.model.source.JavaEnumSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AsciidocUtilsBenchmark {
+
+    @Benchmark
+    public void javadocToAsciidoc(JavadocState state, Blackhole blackhole) {
+        for (JavaDocSource<?> javadoc : state.javadocs) {
+            blackhole.consume(AsciidocUtils.javadocToAsciidoc(javadoc));
+        }
+    }
+
+    /**
+     * The javadoc of each meter enum constant.
+     */
+    @State(Scope.Benchmark)
+    public static class JavadocState {
+
+        final List<JavaDocSource<?>> javadocs = new ArrayList<>();
+
+        @Setup
+        public void setup(SourceTreeState tree) {
+            JavaSourceSearchHelper helper = JavaSourceSearchHelper.create(tree.root,
+                    SourceTreeState.INCLUSION_PATTERN);
+            for (String className : tree.meterClassNames()) {
+                JavaEnumSource enumSource = (JavaEnumSource) helper.search(className);
+                for (EnumConstantSource enumConstant : enumSource.getEnumConstants()) {
+                    this.javadocs.add(enumConstant.getJavaDoc());
+                }
+            }
+        }
+
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(AsciidocUtilsBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+}
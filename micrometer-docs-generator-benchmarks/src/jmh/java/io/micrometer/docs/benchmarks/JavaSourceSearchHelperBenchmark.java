@@ -0,0 +1,102 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.docs.commons.JavaSourceSearchHelper;
+import io.micrometer.docs.fixtures.SyntheticSourceTree;
+import org.jboss.forge.roaster.model.source.JavaSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JavaSourceSearchHelperBenchmark {
+
+    @Benchmark
+    public JavaSourceSearchHelper create(SourceTreeState tree) {
+        return JavaSourceSearchHelper.create(tree.root, SourceTreeState.INCLUSION_PATTERN);
+    }
+
+    @Benchmark
+    public void searchReferencingClass(ReferenceState state, Blackhole blackhole) {
+        for (Reference reference : state.references) {
+            blackhole.consume(state.helper.searchReferencingClass(reference.enclosingSource, reference.className));
+        }
+    }
+
+    /**
+     * The class references of each meter enum: a nested class, a class in the same
+     * package and, except for the first package, a class from a wildcard import.
+     */
+    @State(Scope.Benchmark)
+    public static class ReferenceState {
+
+        JavaSourceSearchHelper helper;
+
+        final List<Reference> references = new ArrayList<>();
+
+        @Setup
+        public void setup(SourceTreeState tree) {
+            this.helper = JavaSourceSearchHelper.create(tree.root, SourceTreeState.INCLUSION_PATTERN);
+            for (int p = 0; p < tree.packages; p++) {
+                for (int m = 0; m < tree.metersPerPackage; m++) {
+                    JavaSource<?> source = this.helper
+                        .search(SyntheticSourceTree.packageName(p) + "." + SyntheticSourceTree.metersClassName(m));
+                    this.references.add(new Reference(source, "LowTags"));
+                    this.references.add(new Reference(source, SyntheticSourceTree.tagsClassName(p)));
+                    if (p > 0) {
+                        this.references.add(new Reference(source, SyntheticSourceTree.tagsClassName(p - 1)));
+                    }
+                }
+            }
+        }
+
+    }
+
+    static class Reference {
+
+        final JavaSource<?> enclosingSource;
+
+        final String className;
+
+        Reference(JavaSource<?> enclosingSource, String className) {
+            this.enclosingSource = enclosingSource;
+            this.className = className;
+        }
+
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(JavaSourceSearchHelperBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.docs.metrics.MetricsDocGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MetricsDocGeneratorBenchmark {
+
+    @Benchmark
+    public void generate(OutputState output, SourceTreeState tree) {
+        new MetricsDocGenerator(tree.root.toFile(), SourceTreeState.INCLUSION_PATTERN, "templates/metrics.adoc.hbs",
+                output.file)
+            .generate();
+    }
+
+    @State(Scope.Benchmark)
+    public static class OutputState {
+
+        Path file;
+
+        @Setup
+        public void setup() throws IOException {
+            this.file = Files.createTempFile("docs-benchmarks", ".adoc");
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(this.file);
+        }
+
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(MetricsDocGeneratorBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import io.micrometer.docs.fixtures.SyntheticSourceTree;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * A {@link SyntheticSourceTree} shared by the benchmarks. The size of the tree can be
+ * changed with the {@code packages}, {@code metersPerPackage} and
+ * {@code observationsPerPackage} parameters.
+ */
+@State(Scope.Benchmark)
+public class SourceTreeState {
+
+    static final Pattern INCLUSION_PATTERN = Pattern.compile(".*");
+
+    @Param({ "10", "100" })
+    int packages;
+
+    @Param({ "10" })
+    int metersPerPackage;
+
+    @Param({ "10" })
+    int observationsPerPackage;
+
+    Path root;
+
+    @Setup
+    public void setup() throws IOException {
+        this.root = Files.createTempDirectory("docs-benchmarks");
+        SyntheticSourceTree.builder()
+            .packages(this.packages)
+            .metersPerPackage(this.metersPerPackage)
+            .observationsPerPackage(this.observationsPerPackage)
+            .build()
+            .generate(this.root);
+    }
+
+    @TearDown
+    public void tearDown() {
+        SyntheticSourceTree.delete(this.root);
+    }
+
+    /**
+     * Return the qualified names of the meter documentation enums in the tree.
+     * @return qualified class names
+     */
+    List<String> meterClassNames() {
+        List<String> classNames = new ArrayList<>();
+        for (int p = 0; p < this.packages; p++) {
+            for (int m = 0; m < this.metersPerPackage; m++) {
+                classNames.add(SyntheticSourceTree.packageName(p) + "." + SyntheticSourceTree.metersClassName(m));
+            }
+        }
+        return classNames;
+    }
+
+}
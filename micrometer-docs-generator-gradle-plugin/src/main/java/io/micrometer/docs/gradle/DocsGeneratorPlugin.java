@@ -0,0 +1,67 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs.gradle;
+
+import org.gradle.api.Plugin;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+
+/**
+ * Plugin registering the {@value #TASK_NAME} task.
+ * <p>
+ * The task generates the documents of the java files under the project directory into
+ * {@code build/generated-docs/observability}. The generator is resolved from the
+ * {@value #CONFIGURATION_NAME} configuration, which defaults to the
+ * {@code micrometer-docs-generator} version of this plugin.
+ */
+public class DocsGeneratorPlugin implements Plugin<Project> {
+
+    public static final String TASK_NAME = "generateObservabilityDocs";
+
+    public static final String CONFIGURATION_NAME = "micrometerDocsGenerator";
+
+    static final String GENERATOR_MODULE = "io.micrometer:micrometer-docs-generator";
+
+    @Override
+    public void apply(Project project) {
+        Configuration generator = project.getConfigurations().create(CONFIGURATION_NAME, (configuration) -> {
+            configuration.setDescription("Classpath of the Micrometer Docs Generator");
+            configuration.setCanBeConsumed(false);
+            String version = DocsGeneratorPlugin.class.getPackage().getImplementationVersion();
+            if (version != null) {
+                configuration.defaultDependencies((dependencies) -> dependencies
+                    .add(project.getDependencies().create(GENERATOR_MODULE + ":" + version)));
+            }
+        });
+        project.getTasks().register(TASK_NAME, DocsGeneratorTask.class, (generate) -> {
+            generate.setGroup("documentation");
+            generate.setDescription("Generates the observability documentation from the java files.");
+            generate.getGeneratorClasspath().from(generator);
+            generate.getProjectRoot().convention(project.getLayout().getProjectDirectory());
+            generate.getInclusionPattern().convention(".*");
+            generate.getOutputDirectory()
+                .convention(project.getLayout().getBuildDirectory().dir("generated-docs/observability"));
+            generate.getCacheDirectory()
+                .convention(project.getLayout().getBuildDirectory().dir("tmp/" + TASK_NAME + "/cache"));
+            generate.getMetrics().convention(false);
+            generate.getSpans().convention(false);
+            generate.getConventions().convention(false);
+            generate.getParallelism().convention(1);
+        });
+    }
+
+}
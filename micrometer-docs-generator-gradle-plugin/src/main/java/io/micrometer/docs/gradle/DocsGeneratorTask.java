@@ -0,0 +1,223 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs.gradle;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.inject.Inject;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.file.FileSystemOperations;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Classpath;
+import org.gradle.api.tasks.IgnoreEmptyDirectories;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.LocalState;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.workers.WorkQueue;
+import org.gradle.workers.WorkerExecutor;
+
+/**
+ * Generate the metrics, spans and observation conventions documents of the java files
+ * under a project root.
+ * <p>
+ * The java files, the templates, the inclusion pattern and the generator classpath are
+ * the inputs, and the output directory is the output, so the task is skipped when
+ * nothing changed and its output can be restored from the build cache. All the java
+ * files under the project root are inputs since the inclusion pattern is applied to
+ * their absolute paths.
+ * <p>
+ * The generator runs with the Worker API in a class loader isolated from the build, which
+ * Gradle reuses for the tasks with the same generator classpath. The index of the java
+ * files is kept in the cache directory, so only the changed files are parsed when the
+ * task runs again.
+ */
+@CacheableTask
+public abstract class DocsGeneratorTask extends DefaultTask {
+
+    static final String[] OUTPUT_FILE_NAMES = { "_metrics.adoc", "_spans.adoc", "_conventions.adoc" };
+
+    /**
+     * Return the directory to generate the documents of.
+     * @return project root directory
+     */
+    @Internal
+    public abstract DirectoryProperty getProjectRoot();
+
+    /**
+     * Return the java files under the {@link #getProjectRoot() project root}.
+     * @return java files
+     */
+    @InputFiles
+    @IgnoreEmptyDirectories
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public FileCollection getSources() {
+        return getProjectRoot().getAsFileTree().matching((patterns) -> patterns.include("**/*.java"));
+    }
+
+    /**
+     * Return the regex the path of a java file must match to be included.
+     * @return inclusion pattern
+     */
+    @Input
+    public abstract Property<String> getInclusionPattern();
+
+    /**
+     * Return the directory of the generated documents. It should be dedicated to them
+     * since its whole content is cached.
+     * @return output directory
+     */
+    @OutputDirectory
+    public abstract DirectoryProperty getOutputDirectory();
+
+    /**
+     * Return the directory to keep the index of the java files between runs.
+     * @return cache directory
+     */
+    @LocalState
+    public abstract DirectoryProperty getCacheDirectory();
+
+    /**
+     * Return whether to generate the metrics documentation. When none of the documents is
+     * selected, all of them are generated.
+     * @return whether to generate the metrics documentation
+     */
+    @Input
+    public abstract Property<Boolean> getMetrics();
+
+    /**
+     * Return whether to generate the spans documentation.
+     * @return whether to generate the spans documentation
+     */
+    @Input
+    public abstract Property<Boolean> getSpans();
+
+    /**
+     * Return whether to generate the observation conventions documentation.
+     * @return whether to generate the observation conventions documentation
+     */
+    @Input
+    public abstract Property<Boolean> getConventions();
+
+    /**
+     * Return the metrics template. The template of the generator is used if not set.
+     * @return metrics template
+     */
+    @Optional
+    @InputFile
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract RegularFileProperty getMetricsTemplate();
+
+    /**
+     * Return the spans template. The template of the generator is used if not set.
+     * @return spans template
+     */
+    @Optional
+    @InputFile
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract RegularFileProperty getSpansTemplate();
+
+    /**
+     * Return the observation conventions template. The template of the generator is used
+     * if not set.
+     * @return observation conventions template
+     */
+    @Optional
+    @InputFile
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract RegularFileProperty getConventionsTemplate();
+
+    /**
+     * Return the number of threads parsing the java files. The generated documents do
+     * not depend on it.
+     * @return parallelism
+     */
+    @Internal
+    public abstract Property<Integer> getParallelism();
+
+    /**
+     * Return the classpath of the generator.
+     * @return generator classpath
+     */
+    @Classpath
+    public abstract ConfigurableFileCollection getGeneratorClasspath();
+
+    @Inject
+    protected abstract WorkerExecutor getWorkerExecutor();
+
+    @Inject
+    protected abstract FileSystemOperations getFileSystemOperations();
+
+    @TaskAction
+    public void generate() {
+        // the generator skips the documents whose model is unchanged according to the
+        // cache directory, so remove the outputs that Gradle asks to generate again
+        File outputDirectory = getOutputDirectory().get().getAsFile();
+        getFileSystemOperations().delete((spec) -> {
+            for (String name : OUTPUT_FILE_NAMES) {
+                spec.delete(new File(outputDirectory, name));
+            }
+        });
+        WorkQueue workQueue = getWorkerExecutor()
+            .classLoaderIsolation((spec) -> spec.getClasspath().from(getGeneratorClasspath()));
+        List<String> arguments = arguments();
+        workQueue.submit(DocsGeneratorWorkAction.class, (parameters) -> parameters.getArguments().set(arguments));
+    }
+
+    List<String> arguments() {
+        List<String> arguments = new ArrayList<>();
+        arguments.add(getProjectRoot().get().getAsFile().getAbsolutePath());
+        arguments.add(getInclusionPattern().get());
+        arguments.add(getOutputDirectory().get().getAsFile().getAbsolutePath());
+        if (getMetrics().get()) {
+            arguments.add("--metrics");
+        }
+        if (getSpans().get()) {
+            arguments.add("--spans");
+        }
+        if (getConventions().get()) {
+            arguments.add("--conventions");
+        }
+        addTemplate(arguments, "--metrics-template", getMetricsTemplate());
+        addTemplate(arguments, "--spans-template", getSpansTemplate());
+        addTemplate(arguments, "--conventions-template", getConventionsTemplate());
+        arguments.add("--parallelism=" + getParallelism().get());
+        arguments.add("--cache-dir=" + getCacheDirectory().get().getAsFile().getAbsolutePath());
+        return arguments;
+    }
+
+    private static void addTemplate(List<String> arguments, String option, RegularFileProperty template) {
+        if (template.isPresent()) {
+            arguments.add(option + "=" + template.get().getAsFile().getAbsolutePath());
+        }
+    }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs.gradle;
+
+import io.micrometer.docs.DocsGeneratorCommand;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+
+/**
+ * Run {@link DocsGeneratorCommand} in the isolated class loader of the generator.
+ */
+public abstract class DocsGeneratorWorkAction implements WorkAction<DocsGeneratorWorkAction.Parameters> {
+
+    @Override
+    public void execute() {
+        DocsGeneratorCommand.main(getParameters().getArguments().get().toArray(new String[0]));
+    }
+
+    /**
+     * Parameters of {@link DocsGeneratorWorkAction}.
+     */
+    public interface Parameters extends WorkParameters {
+
+        /**
+         * Return the arguments of {@link DocsGeneratorCommand}.
+         * @return command arguments
+         */
+        ListProperty<String> getArguments();
+
+    }
+
+}
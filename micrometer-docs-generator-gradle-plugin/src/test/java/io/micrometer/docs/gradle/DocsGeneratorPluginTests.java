@@ -0,0 +1,75 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs.gradle;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DocsGeneratorPlugin} and {@link DocsGeneratorTask}.
+ */
+class DocsGeneratorPluginTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void registerTaskWithConventions() {
+        Project project = ProjectBuilder.builder().withProjectDir(this.dir.toFile()).build();
+        project.getPluginManager().apply(DocsGeneratorPlugin.class);
+
+        DocsGeneratorTask task = (DocsGeneratorTask) project.getTasks().getByName(DocsGeneratorPlugin.TASK_NAME);
+
+        assertThat(project.getConfigurations().getByName(DocsGeneratorPlugin.CONFIGURATION_NAME)).isNotNull();
+        File outputDirectory = this.dir.resolve("build/generated-docs/observability").toFile();
+        File cacheDirectory = this.dir.resolve("build/tmp/generateObservabilityDocs/cache").toFile();
+        assertThat(task.getOutputDirectory().get().getAsFile()).isEqualTo(outputDirectory);
+        assertThat(task.arguments()).containsExactly(this.dir.toFile().getAbsolutePath(), ".*",
+                outputDirectory.getAbsolutePath(), "--parallelism=1", "--cache-dir=" + cacheDirectory.getAbsolutePath());
+    }
+
+    @Test
+    void passSelectedDocumentsAndTemplates() throws IOException {
+        Project project = ProjectBuilder.builder().withProjectDir(this.dir.toFile()).build();
+        project.getPluginManager().apply(DocsGeneratorPlugin.class);
+        Path template = Files.createFile(this.dir.resolve("metrics.adoc.hbs"));
+        Files.createDirectories(this.dir.resolve("src/main/java/foo"));
+        Path source = Files.createFile(this.dir.resolve("src/main/java/foo/Foo.java"));
+        Files.createFile(this.dir.resolve("src/main/java/foo/notes.txt"));
+
+        DocsGeneratorTask task = (DocsGeneratorTask) project.getTasks().getByName(DocsGeneratorPlugin.TASK_NAME);
+        task.getInclusionPattern().set(".*/foo/.*");
+        task.getMetrics().set(true);
+        task.getMetricsTemplate().set(template.toFile());
+        task.getParallelism().set(4);
+
+        assertThat(task.arguments()).contains(".*/foo/.*", "--metrics",
+                "--metrics-template=" + template.toFile().getAbsolutePath(), "--parallelism=4")
+            .doesNotContain("--spans", "--conventions");
+        assertThat(task.getSources().getFiles()).containsExactly(source.toFile());
+    }
+
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import io.micrometer.docs.commons.JavaSourceIndex;
+import io.micrometer.docs.commons.JavaSourceScanner;
+import io.micrometer.docs.commons.JavaSourceSearchHelper;
+import io.micrometer.docs.commons.templates.TemplateRegistry;
+import io.micrometer.docs.conventions.ObservationConventionsDocGenerator;
+import io.micrometer.docs.metrics.MetricsDocGenerator;
+import io.micrometer.docs.spans.SpansDocGenerator;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+
+/**
+ * Generate the metrics, spans and observation conventions documents of the java files
+ * under a project root, in the Maven process.
+ * <p>
+ * A fingerprint of the included java files, the templates and the options is kept in the
+ * cache directory. It is computed from a walk of the project root, before the java files
+ * are indexed. When it is unchanged and the documents exist, nothing is indexed nor
+ * generated. The index of the java files is kept in the cache directory as well and,
+ * for the modules of a reactor build scanning the same project root, in memory.
+ * <p>
+ * The mojo is thread-safe, so the modules of a {@code mvn -T} build generate their
+ * documents in parallel. The parameters are declared in
+ * {@code META-INF/maven/plugin.xml}.
+ */
+public class GenerateDocsMojo extends AbstractMojo {
+
+    static final String FINGERPRINT_FILE_NAME = "inputs.sha256";
+
+    /**
+     * Project root as given to the index of the last generation. The indexes are
+     * immutable and the unchanged files are detected with their last modified time, so
+     * they can be shared by the modules of a reactor build.
+     * <p>
+     * When modules of a parallel build index the same project root concurrently, the last
+     * one to finish wins. An older index only makes the next build parse more files, it
+     * never gives a wrong result, so the modules are not serialized for it.
+     */
+    private static final Map<File, JavaSourceIndex> indexes = new ConcurrentHashMap<>();
+
+    private File projectRoot;
+
+    private String inclusionPattern = ".*";
+
+    private File outputDirectory;
+
+    private File cacheDirectory;
+
+    private boolean metrics;
+
+    private boolean spans;
+
+    private boolean conventions;
+
+    private String metricsTemplate = "templates/metrics.adoc.hbs";
+
+    private String spansTemplate = "templates/spans.adoc.hbs";
+
+    private String conventionsTemplate = "templates/conventions.adoc.hbs";
+
+    private int parallelism = 1;
+
+    private boolean skip;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (this.skip) {
+            getLog().info("Skipping the generation of the observability docs");
+            return;
+        }
+        if (!this.metrics && !this.spans && !this.conventions) {
+            this.metrics = true;
+            this.spans = true;
+            this.conventions = true;
+        }
+        try {
+            generate();
+        }
+        catch (IOException | RuntimeException ex) {
+            throw new MojoExecutionException("Failed to generate the observability docs of " + this.projectRoot, ex);
+        }
+    }
+
+    private void generate() throws IOException {
+        Pattern pattern = Pattern.compile(this.inclusionPattern.replace("/", File.separator));
+        Path outputDir = this.outputDirectory.toPath();
+        Path cacheDir = this.cacheDirectory.toPath();
+        Files.createDirectories(outputDir);
+        Files.createDirectories(cacheDir);
+
+        Path metricsOutput = outputDir.resolve("_metrics.adoc");
+        Path spansOutput = outputDir.resolve("_spans.adoc");
+        Path conventionsOutput = outputDir.resolve("_conventions.adoc");
+        List<Path> outputs = new ArrayList<>();
+        if (this.metrics) {
+            outputs.add(metricsOutput);
+        }
+        if (this.spans) {
+            outputs.add(spansOutput);
+        }
+        if (this.conventions) {
+            outputs.add(conventionsOutput);
+        }
+
+        // walk without indexing, so that an up-to-date build does not read the java files
+        Path fingerprintFile = cacheDir.resolve(FINGERPRINT_FILE_NAME);
+        List<Path> sourcePaths = JavaSourceSearchHelper.collectSourcePaths(this.projectRoot.toPath(), pattern);
+        String fingerprint = InputFingerprint.of(sourcePaths, inputValues(outputs));
+        if (outputs.stream().allMatch(Files::isRegularFile) && Files.isRegularFile(fingerprintFile)
+                && fingerprint.equals(new String(Files.readAllBytes(fingerprintFile), StandardCharsets.UTF_8))) {
+            getLog().info("Observability docs are up-to-date in " + outputDir);
+            return;
+        }
+        // an interrupted generation must not be taken as up-to-date
+        Files.deleteIfExists(fingerprintFile);
+
+        // building the helper only parses the java files changed since the last run
+        JavaSourceSearchHelper searchHelper = JavaSourceSearchHelper.builder(this.projectRoot.toPath(), pattern)
+            .parallelism(this.parallelism)
+            .cacheDir(cacheDir)
+            .baseIndex(indexes.get(this.projectRoot))
+            .build();
+        indexes.put(this.projectRoot, searchHelper.getIndex());
+
+        JavaSourceScanner scanner = new JavaSourceScanner(searchHelper, this.parallelism);
+        if (this.metrics) {
+            scanner.register(
+                    new MetricsDocGenerator(this.projectRoot, pattern, this.metricsTemplate, metricsOutput, cacheDir)
+                        .createProcessor(searchHelper));
+        }
+        if (this.spans) {
+            scanner.register(
+                    new SpansDocGenerator(this.projectRoot, pattern, this.spansTemplate, spansOutput, cacheDir)
+                        .createProcessor(searchHelper));
+        }
+        if (this.conventions) {
+            scanner.register(new ObservationConventionsDocGenerator(this.projectRoot, pattern,
+                    this.conventionsTemplate, conventionsOutput, cacheDir)
+                .createProcessor(searchHelper));
+        }
+        scanner.scan();
+        Files.write(fingerprintFile, fingerprint.getBytes(StandardCharsets.UTF_8));
+        getLog().info("Generated observability docs in " + outputDir);
+    }
+
+    private List<String> inputValues(List<Path> outputs) throws IOException {
+        TemplateRegistry templateRegistry = TemplateRegistry.getDefault();
+        List<String> values = new ArrayList<>(Arrays.asList(this.projectRoot.getAbsolutePath(), this.inclusionPattern));
+        for (Path output : outputs) {
+            values.add(output.toAbsolutePath().toString());
+        }
+        if (this.metrics) {
+            values.add(templateRegistry.read(this.metricsTemplate));
+        }
+        if (this.spans) {
+            values.add(templateRegistry.read(this.spansTemplate));
+        }
+        if (this.conventions) {
+            values.add(templateRegistry.read(this.conventionsTemplate));
+        }
+        return values;
+    }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs.maven;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import io.micrometer.docs.commons.utils.DigestUtils;
+
+/**
+ * Fingerprint of the inputs of a generation. The java files are represented by their
+ * path, size and last modified time, like the unchanged files of the
+ * {@link io.micrometer.docs.commons.JavaSourceIndex}.
+ */
+final class InputFingerprint {
+
+    private InputFingerprint() {
+    }
+
+    /**
+     * Compute the fingerprint of the given inputs.
+     * @param sourcePaths included java files in the collected order
+     * @param values other inputs, e.g. options and template contents
+     * @return fingerprint
+     * @throws IOException If a java file can't be read.
+     */
+    static String of(List<Path> sourcePaths, List<String> values) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append(InputFingerprint.class.getPackage().getImplementationVersion()).append('\n');
+        for (String value : values) {
+            sb.append(value.length()).append(':').append(value).append('\n');
+        }
+        for (Path path : sourcePaths) {
+            sb.append(path)
+                .append('\t')
+                .append(Files.size(path))
+                .append('\t')
+                .append(Files.getLastModifiedTime(path).toMillis())
+                .append('\n');
+        }
+        return DigestUtils.sha256Hex(sb.toString());
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs.maven;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link InputFingerprint}.
+ */
+class InputFingerprintTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void sameInputsHaveSameFingerprint() throws IOException {
+        List<Path> sources = Collections.singletonList(write("Foo.java", "class Foo {}"));
+
+        assertThat(InputFingerprint.of(sources, Arrays.asList("a", "b")))
+            .isEqualTo(InputFingerprint.of(sources, Arrays.asList("a", "b")));
+    }
+
+    @Test
+    void changedSourceChangesFingerprint() throws IOException {
+        Path source = write("Foo.java", "class Foo {}");
+        List<Path> sources = Collections.singletonList(source);
+        String fingerprint = InputFingerprint.of(sources, Collections.emptyList());
+
+        Files.setLastModifiedTime(source, FileTime.fromMillis(Files.getLastModifiedTime(source).toMillis() - 10_000));
+        assertThat(InputFingerprint.of(sources, Collections.emptyList())).isNotEqualTo(fingerprint);
+
+        Path added = write("Bar.java", "class Bar {}");
+        assertThat(InputFingerprint.of(Arrays.asList(source, added), Collections.emptyList()))
+            .isNotEqualTo(InputFingerprint.of(sources, Collections.emptyList()));
+    }
+
+    @Test
+    void changedValuesChangeFingerprint() throws IOException {
+        List<Path> sources = Collections.emptyList();
+
+        assertThat(InputFingerprint.of(sources, Arrays.asList("ab", "c")))
+            .isNotEqualTo(InputFingerprint.of(sources, Arrays.asList("a", "bc")))
+            .isNotEqualTo(InputFingerprint.of(sources, Collections.singletonList("abc")));
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.write(this.dir.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
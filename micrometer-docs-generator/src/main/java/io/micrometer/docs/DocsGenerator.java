@@ -0,0 +1,256 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+import io.micrometer.common.lang.Nullable;
+import io.micrometer.docs.commons.JavaSourceCache;
+import io.micrometer.docs.commons.JavaSourceScanner;
+import io.micrometer.docs.commons.JavaSourceSearchHelper;
+import io.micrometer.docs.conventions.ObservationConventionEntry;
+import io.micrometer.docs.conventions.ObservationConventionsDocGenerator;
+import io.micrometer.docs.metrics.MetricEntry;
+import io.micrometer.docs.metrics.MetricsDocGenerator;
+import io.micrometer.docs.spans.SpanEntry;
+import io.micrometer.docs.spans.SpansDocGenerator;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Programmatic entry point for document generation.
+ * <p>
+ * A generator indexes the java files under a project root once when it is built. The
+ * entries of all the documents are then {@link #collect() collected} from the index in a
+ * single scan, and can be rendered with any template. Use {@link #refresh()} to get a
+ * generator for the current state of the files, which only parses the files changed
+ * since this generator was built, as long as the parsed files fit in the source cache.
+ * <pre>
+ * DocsGenerator generator = DocsGenerator.builder(projectRoot, Pattern.compile(".*"))
+ *     .parallelism(4)
+ *     .build();
+ * DocsModel model = generator.collect();
+ * generator.renderMetrics(model, DocsGenerator.DEFAULT_METRICS_TEMPLATE, output.resolve("_metrics.adoc"));
+ * </pre>
+ */
+public final class DocsGenerator {
+
+    public static final String DEFAULT_METRICS_TEMPLATE = "templates/metrics.adoc.hbs";
+
+    public static final String DEFAULT_SPANS_TEMPLATE = "templates/spans.adoc.hbs";
+
+    public static final String DEFAULT_CONVENTIONS_TEMPLATE = "templates/conventions.adoc.hbs";
+
+    private final Path projectRoot;
+
+    private final Pattern inclusionPattern;
+
+    private final int parallelism;
+
+    @Nullable
+    private final Path cacheDir;
+
+    private final JavaSourceSearchHelper searchHelper;
+
+    private DocsGenerator(Path projectRoot, Pattern inclusionPattern, int parallelism, @Nullable Path cacheDir,
+            JavaSourceSearchHelper searchHelper) {
+        this.projectRoot = projectRoot;
+        this.inclusionPattern = inclusionPattern;
+        this.parallelism = parallelism;
+        this.cacheDir = cacheDir;
+        this.searchHelper = searchHelper;
+    }
+
+    public static Builder builder(Path projectRoot, Pattern inclusionPattern) {
+        return new Builder(projectRoot, inclusionPattern);
+    }
+
+    /**
+     * Return the search helper over the index of this generator.
+     * @return search helper
+     */
+    public JavaSourceSearchHelper getSearchHelper() {
+        return this.searchHelper;
+    }
+
+    /**
+     * Scan the candidate java files once and collect the entries of all the documents.
+     * @return collected entries
+     */
+    public DocsModel collect() {
+        Collection<MetricEntry> metrics = new TreeSet<>();
+        Collection<SpanEntry> spans = new TreeSet<>();
+        Collection<ObservationConventionEntry> conventions = new TreeSet<>();
+        new JavaSourceScanner(this.searchHelper, this.parallelism)
+            .register(MetricsDocGenerator.createCollector(this.searchHelper, metrics))
+            .register(SpansDocGenerator.createCollector(this.searchHelper, spans))
+            .register(ObservationConventionsDocGenerator.createCollector(this.searchHelper, conventions))
+            .scan();
+        return new DocsModel(new ArrayList<>(metrics), new ArrayList<>(spans), new ArrayList<>(conventions));
+    }
+
+    /**
+     * Render the metrics of the given model.
+     * @param model collected entries
+     * @param templateLocation template location (either in classpath or file system)
+     * @param output output file
+     * @throws IOException If the template or the output can't be read or written.
+     */
+    public void renderMetrics(DocsModel model, String templateLocation, Path output) throws IOException {
+        new MetricsDocGenerator(this.projectRoot.toFile(), this.inclusionPattern, templateLocation, output,
+                this.cacheDir)
+            .render(model.getMetrics(), this.searchHelper.getObservationRegistry());
+    }
+
+    /**
+     * Render the spans of the given model.
+     * @param model collected entries
+     * @param templateLocation template location (either in classpath or file system)
+     * @param output output file
+     * @throws IOException If the template or the output can't be read or written.
+     */
+    public void renderSpans(DocsModel model, String templateLocation, Path output) throws IOException {
+        new SpansDocGenerator(this.projectRoot.toFile(), this.inclusionPattern, templateLocation, output,
+                this.cacheDir)
+            .render(model.getSpans(), this.searchHelper.getObservationRegistry());
+    }
+
+    /**
+     * Render the observation conventions of the given model.
+     * @param model collected entries
+     * @param templateLocation template location (either in classpath or file system)
+     * @param output output file
+     * @throws IOException If the template or the output can't be read or written.
+     */
+    public void renderConventions(DocsModel model, String templateLocation, Path output) throws IOException {
+        new ObservationConventionsDocGenerator(this.projectRoot.toFile(), this.inclusionPattern, templateLocation,
+                output, this.cacheDir)
+            .render(model.getConventions(), this.searchHelper.getObservationRegistry());
+    }
+
+    /**
+     * Create a generator for the current state of the java files. The files unchanged
+     * since this generator was built are not parsed again, and the parsed source cache is
+     * shared.
+     * @return a new generator
+     */
+    public DocsGenerator refresh() {
+        JavaSourceSearchHelper searchHelper = JavaSourceSearchHelper.builder(this.projectRoot, this.inclusionPattern)
+            .sourceCache(this.searchHelper.getSourceCache())
+            .parallelism(this.parallelism)
+            .cacheDir(this.cacheDir)
+            .baseIndex(this.searchHelper.getIndex())
+            .observationRegistry(this.searchHelper.getObservationRegistry())
+            .build();
+        return new DocsGenerator(this.projectRoot, this.inclusionPattern, this.parallelism, this.cacheDir,
+                searchHelper);
+    }
+
+    /**
+     * Builder for {@link DocsGenerator}.
+     */
+    public static final class Builder {
+
+        private final Path projectRoot;
+
+        private final Pattern inclusionPattern;
+
+        private int parallelism = 1;
+
+        @Nullable
+        private JavaSourceCache sourceCache;
+
+        @Nullable
+        private Path cacheDir;
+
+        private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+
+        private Builder(Path projectRoot, Pattern inclusionPattern) {
+            this.projectRoot = projectRoot;
+            this.inclusionPattern = inclusionPattern;
+        }
+
+        /**
+         * Set the number of threads used to parse and process the java files. The
+         * default {@code 1} uses the calling thread. The entries do not depend on it.
+         * @param parallelism number of threads
+         * @return this builder
+         */
+        public Builder parallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("parallelism must be positive but was " + parallelism);
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Set the cache for the parsed java files. A new {@link JavaSourceCache} with the
+         * default size is used if not specified.
+         * @param sourceCache a source cache
+         * @return this builder
+         */
+        public Builder sourceCache(JavaSourceCache sourceCache) {
+            this.sourceCache = sourceCache;
+            return this;
+        }
+
+        /**
+         * Set the directory to keep the index and the rendering state between runs.
+         * @param cacheDir cache directory or {@code null} to not keep any state
+         * @return this builder
+         * @see JavaSourceSearchHelper.Builder#cacheDir(Path)
+         */
+        public Builder cacheDir(@Nullable Path cacheDir) {
+            this.cacheDir = cacheDir;
+            return this;
+        }
+
+        /**
+         * Set the registry to observe the indexing, the scan and the rendering with.
+         * @param observationRegistry observation registry
+         * @return this builder
+         */
+        public Builder observationRegistry(ObservationRegistry observationRegistry) {
+            this.observationRegistry = observationRegistry;
+            return this;
+        }
+
+        /**
+         * Index the java files under the project root.
+         * @return a generator over the index
+         */
+        public DocsGenerator build() {
+            JavaSourceCache cache = (this.sourceCache != null) ? this.sourceCache : new JavaSourceCache();
+            JavaSourceSearchHelper searchHelper = JavaSourceSearchHelper
+                .builder(this.projectRoot, this.inclusionPattern)
+                .sourceCache(cache)
+                .parallelism(this.parallelism)
+                .cacheDir(this.cacheDir)
+                .observationRegistry(this.observationRegistry)
+                .build();
+            return new DocsGenerator(this.projectRoot, this.inclusionPattern, this.parallelism, this.cacheDir,
+                    searchHelper);
+        }
+
+    }
+
+}
@@ -19,13 +19,21 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
+import io.micrometer.common.lang.Nullable;
 import io.micrometer.common.util.internal.logging.InternalLogger;
 import io.micrometer.common.util.internal.logging.InternalLoggerFactory;
+import io.micrometer.docs.commons.JavaSourceCache;
+import io.micrometer.docs.commons.JavaSourceIndex;
+import io.micrometer.docs.commons.JavaSourceScanner;
+import io.micrometer.docs.commons.JavaSourceSearchHelper;
 import io.micrometer.docs.conventions.ObservationConventionsDocGenerator;
 import io.micrometer.docs.metrics.MetricsDocGenerator;
 import io.micrometer.docs.spans.SpansDocGenerator;
+import io.micrometer.observation.ObservationRegistry;
 import picocli.CommandLine;
 import picocli.CommandLine.ArgGroup;
 import picocli.CommandLine.Command;
@@ -57,15 +65,15 @@ public class DocsGeneratorCommand implements Runnable {
     @Parameters(index = "2", description = "The output directory.")
     private Path outputDir;
 
-    @Option(names = "--metrics-template", defaultValue = "templates/metrics.adoc.hbs",
+    @Option(names = "--metrics-template", defaultValue = DocsGenerator.DEFAULT_METRICS_TEMPLATE,
             description = "Metrics template location")
     private String metricsTemplate;
 
-    @Option(names = "--spans-template", defaultValue = "templates/spans.adoc.hbs",
+    @Option(names = "--spans-template", defaultValue = DocsGenerator.DEFAULT_SPANS_TEMPLATE,
             description = "Spans template location")
     private String spansTemplate;
 
-    @Option(names = "--conventions-template", defaultValue = "templates/conventions.adoc.hbs",
+    @Option(names = "--conventions-template", defaultValue = DocsGenerator.DEFAULT_CONVENTIONS_TEMPLATE,
             description = "Observation Conventions template location")
     private String conventionsTemplate;
 
@@ -81,6 +89,37 @@ public class DocsGeneratorCommand implements Runnable {
             description = "Generated observation conventions filename. Absolute path or relative path to the output directory.")
     private Path conventionsOutput;
 
+    @Option(names = "--source-cache-size", defaultValue = "" + JavaSourceCache.DEFAULT_MAX_SIZE,
+            description = "Maximum number of parsed java files kept in memory for class lookups. 0 disables the cache.")
+    private int sourceCacheSize;
+
+    @Option(names = "--parallelism", defaultValue = "1",
+            description = "Number of threads used to parse and process the java files. The generated output does not depend on it.")
+    private int parallelism;
+
+    @Option(names = "--cache-dir",
+            description = "Directory to keep state between runs. When set, only the changed java files are parsed to build the index, and unchanged documents are not rendered again.")
+    private Path cacheDir;
+
+    @Option(names = "--metrics-report",
+            description = "File to write a JSON summary of the time spent in each generation phase and of the work done, e.g. parsed files and cache hits. Absolute path or relative path to the output directory. The summary is also logged as a table.")
+    private Path metricsReport;
+
+    @Option(names = "--watch",
+            description = "Keep running and generate the documents again when the included java files change. Each change walks the project again, and only the files whose last modified time changed are indexed and parsed again. Hidden and build output directories (build, target, node_modules) are not watched.")
+    private boolean watch;
+
+    @Nullable
+    private final DocsGeneratorDaemon.WarmState warmState;
+
+    public DocsGeneratorCommand() {
+        this(null);
+    }
+
+    DocsGeneratorCommand(@Nullable DocsGeneratorDaemon.WarmState warmState) {
+        this.warmState = warmState;
+    }
+
     public static void main(String... args) {
         DocsGeneratorCommand command = new DocsGeneratorCommand();
         // Do not call "System.exit" here since exec-maven-plugin's "exec:java" halts the
@@ -93,7 +132,7 @@ public class DocsGeneratorCommand implements Runnable {
         execute(command, args);
     }
 
-    private static void execute(Runnable runnable, String[] args) {
+    static void execute(Runnable runnable, String[] args) {
         CommandLine cmd = new CommandLine(runnable);
         try {
             ParseResult parseResult = cmd.parseArgs(args);
@@ -133,32 +172,131 @@ public class DocsGeneratorCommand implements Runnable {
         logger.info("Output root: {}", this.outputDir);
 
         this.options.setAllIfNoneSpecified();
+
+        if (this.watch) {
+            watch();
+        }
+        else {
+            generate(this.warmState);
+        }
+    }
+
+    // generate, then generate again on each change with the warm sources of the
+    // previous run
+    private void watch() {
+        if (this.warmState != null) {
+            throw new IllegalArgumentException("--watch can't be used in a daemon request");
+        }
+        DocsGeneratorDaemon.WarmState warmState = new DocsGeneratorDaemon.WarmState();
+        // register before the first run not to miss the changes made meanwhile
+        try (ProjectWatcher watcher = new ProjectWatcher(this.projectRoot.toPath(), this.inclusionPattern)) {
+            generateAndKeepWatching(warmState);
+            while (true) {
+                logger.info("Watching {} for changes", this.projectRoot);
+                Set<Path> changes = watcher.awaitChanges(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+                if (changes.isEmpty()) {
+                    continue;
+                }
+                // the changes only trigger the run: it walks the project again and reuses
+                // the index entries and parsed files whose last modified time is unchanged
+                logger.info("Generating documents for {} changed path(s), e.g. {}", changes.size(),
+                        changes.iterator().next());
+                generateAndKeepWatching(warmState);
+            }
+        }
+        catch (IOException ex) {
+            throw new RuntimeException("Failed to watch " + this.projectRoot, ex);
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void generateAndKeepWatching(DocsGeneratorDaemon.WarmState warmState) {
+        long start = System.nanoTime();
+        try {
+            generate(warmState);
+        }
+        catch (RuntimeException ex) {
+            // keep watching, the next change may fix it
+            logger.error("Failed to generate documents", ex);
+            return;
+        }
+        logger.info("Generated documents in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void generate(@Nullable DocsGeneratorDaemon.WarmState warmState) {
+        // walk and parse the project once, then share the parsed sources with all the
+        // enabled generators. A daemon or a watch keeps the parsed sources and the
+        // index of the previous runs.
+        JavaSourceCache sourceCache = (warmState != null) ? warmState.getSourceCache(this.sourceCacheSize)
+                : new JavaSourceCache(this.sourceCacheSize);
+        JavaSourceIndex baseIndex = (warmState != null) ? warmState.getIndex(this.projectRoot.toPath()) : null;
+        MetricsReport report = null;
+        ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+        if (this.metricsReport != null) {
+            report = new MetricsReport();
+            report.bindSourceCache(sourceCache);
+            observationRegistry = report.getObservationRegistry();
+        }
+        JavaSourceSearchHelper searchHelper = JavaSourceSearchHelper
+            .builder(this.projectRoot.toPath(), this.inclusionPattern)
+            .sourceCache(sourceCache)
+            .parallelism(this.parallelism)
+            .cacheDir(this.cacheDir)
+            .baseIndex(baseIndex)
+            .observationRegistry(observationRegistry)
+            .build();
+        if (warmState != null) {
+            warmState.setIndex(this.projectRoot.toPath(), searchHelper.getIndex());
+        }
+        JavaSourceScanner scanner = new JavaSourceScanner(searchHelper, this.parallelism);
         if (this.options.metrics) {
-            generateMetricsDoc();
+            scanner.register(createMetricsDocGenerator().createProcessor(searchHelper));
         }
         if (this.options.spans) {
-            generateSpansDoc();
+            scanner.register(createSpansDocGenerator().createProcessor(searchHelper));
         }
         if (this.options.conventions) {
-            generateConventionsDoc();
+            scanner.register(createConventionsDocGenerator().createProcessor(searchHelper));
+        }
+        scanner.scan();
+        logger.debug("Source cache: {}", sourceCache);
+        if (report != null) {
+            writeMetricsReport(report);
+        }
+    }
+
+    private void writeMetricsReport(MetricsReport report) {
+        Path file = resolveOutputPath(this.metricsReport);
+        try {
+            report.writeJson(file);
+        }
+        catch (IOException ex) {
+            throw new RuntimeException("Failed to write metrics report to " + file, ex);
+        }
+        logger.info("Metrics report: {}", file);
+        for (String line : report.toTable()) {
+            logger.info(line);
         }
     }
 
-    void generateMetricsDoc() {
+    MetricsDocGenerator createMetricsDocGenerator() {
         Path output = resolveAndPrepareOutputPath(this.metricsOutput);
-        new MetricsDocGenerator(this.projectRoot, this.inclusionPattern, this.metricsTemplate, output).generate();
+        return new MetricsDocGenerator(this.projectRoot, this.inclusionPattern, this.metricsTemplate, output,
+                this.cacheDir);
     }
 
-    void generateSpansDoc() {
+    SpansDocGenerator createSpansDocGenerator() {
         Path output = resolveAndPrepareOutputPath(this.spansOutput);
-        new SpansDocGenerator(this.projectRoot, this.inclusionPattern, this.spansTemplate, output).generate();
+        return new SpansDocGenerator(this.projectRoot, this.inclusionPattern, this.spansTemplate, output,
+                this.cacheDir);
     }
 
-    void generateConventionsDoc() {
+    ObservationConventionsDocGenerator createConventionsDocGenerator() {
         Path output = resolveAndPrepareOutputPath(this.conventionsOutput);
-        new ObservationConventionsDocGenerator(this.projectRoot, this.inclusionPattern, this.conventionsTemplate,
-                output)
-            .generate();
+        return new ObservationConventionsDocGenerator(this.projectRoot, this.inclusionPattern,
+                this.conventionsTemplate, output, this.cacheDir);
     }
 
     private Path resolveAndPrepareOutputPath(Path specified) {
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.common.lang.Nullable;
+import io.micrometer.common.util.internal.logging.InternalLogger;
+import io.micrometer.common.util.internal.logging.InternalLoggerFactory;
+import io.micrometer.docs.commons.JavaSourceCache;
+import io.micrometer.docs.commons.JavaSourceIndex;
+
+/**
+ * Long-lived entry point running {@link DocsGeneratorCommand} requests read from stdin.
+ * <p>
+ * Each line is one request with the {@link DocsGeneratorCommand} arguments separated by
+ * tabs. Blank lines are ignored, and {@code exit} or the end of the input stops the
+ * daemon. The index and the parsed java files of each project root as well as the
+ * compiled templates are kept between requests, so a request only parses the files that
+ * changed since the previous one, as long as the parsed files fit in the source cache
+ * (see {@code --source-cache-size}).
+ * <p>
+ * The generator logs to stdout, so the protocol lines written by the daemon start with
+ * {@value #RESPONSE_PREFIX}. A {@code ready} line is written once the daemon accepts
+ * requests, then an {@code ok <millis>} or {@code error <message>} line per request.
+ */
+public final class DocsGeneratorDaemon {
+
+    private static final InternalLogger logger = InternalLoggerFactory.getInstance(DocsGeneratorDaemon.class);
+
+    static final String RESPONSE_PREFIX = "docs-generator-daemon: ";
+
+    static final String EXIT = "exit";
+
+    private final WarmState warmState = new WarmState();
+
+    public static void main(String... args) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), true);
+        new DocsGeneratorDaemon().serve(reader, writer);
+    }
+
+    /**
+     * Serve the requests until {@code exit} or the end of the input.
+     * @param reader request lines
+     * @param writer response lines
+     * @throws IOException If the requests can't be read.
+     */
+    void serve(BufferedReader reader, PrintWriter writer) throws IOException {
+        respond(writer, "ready");
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            if (EXIT.equals(line.trim())) {
+                break;
+            }
+            respond(writer, handle(line.split("\t")));
+        }
+    }
+
+    private String handle(String[] args) {
+        long start = System.nanoTime();
+        try {
+            DocsGeneratorCommand.execute(new DocsGeneratorCommand(this.warmState), args);
+        }
+        catch (RuntimeException ex) {
+            logger.debug("Failed to generate documents", ex);
+            return "error " + firstLine(ex);
+        }
+        return "ok " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private static void respond(PrintWriter writer, String response) {
+        writer.println(RESPONSE_PREFIX + response);
+    }
+
+    private static String firstLine(Exception ex) {
+        String message = (ex.getMessage() != null) ? ex.getMessage() : ex.getClass().getName();
+        int index = message.indexOf('\n');
+        return (index != -1) ? message.substring(0, index).trim() : message;
+    }
+
+    /**
+     * State kept between the requests of a daemon.
+     */
+    static final class WarmState {
+
+        /**
+         * Project root as given in the request to the index of its previous request.
+         */
+        private final Map<Path, JavaSourceIndex> indexes = new HashMap<>();
+
+        @Nullable
+        private JavaSourceCache sourceCache;
+
+        /**
+         * Return the source cache of the previous requests if it has the given maximum
+         * size, or a new one.
+         * @param maxSize maximum number of cached sources
+         * @return source cache
+         */
+        synchronized JavaSourceCache getSourceCache(int maxSize) {
+            if (this.sourceCache == null || this.sourceCache.getMaxSize() != maxSize) {
+                this.sourceCache = new JavaSourceCache(maxSize);
+            }
+            return this.sourceCache;
+        }
+
+        @Nullable
+        synchronized JavaSourceIndex getIndex(Path projectRoot) {
+            return this.indexes.get(projectRoot);
+        }
+
+        synchronized void setIndex(Path projectRoot, JavaSourceIndex index) {
+            this.indexes.put(projectRoot, index);
+        }
+
+    }
+
+}
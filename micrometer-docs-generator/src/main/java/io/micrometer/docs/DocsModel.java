@@ -0,0 +1,62 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs;
+
+import java.util.Collections;
+import java.util.List;
+
+import io.micrometer.docs.conventions.ObservationConventionEntry;
+import io.micrometer.docs.metrics.MetricEntry;
+import io.micrometer.docs.spans.SpanEntry;
+
+/**
+ * Entries collected by {@link DocsGenerator#collect()}, sorted like in the generated
+ * documents.
+ */
+public final class DocsModel {
+
+    private final List<MetricEntry> metrics;
+
+    private final List<SpanEntry> spans;
+
+    private final List<ObservationConventionEntry> conventions;
+
+    DocsModel(List<MetricEntry> metrics, List<SpanEntry> spans, List<ObservationConventionEntry> conventions) {
+        this.metrics = Collections.unmodifiableList(metrics);
+        this.spans = Collections.unmodifiableList(spans);
+        this.conventions = Collections.unmodifiableList(conventions);
+    }
+
+    public List<MetricEntry> getMetrics() {
+        return this.metrics;
+    }
+
+    public List<SpanEntry> getSpans() {
+        return this.spans;
+    }
+
+    public List<ObservationConventionEntry> getConventions() {
+        return this.conventions;
+    }
+
+    @Override
+    public String toString() {
+        return "DocsModel{metrics=" + this.metrics.size() + ", spans=" + this.spans.size() + ", conventions="
+                + this.conventions.size() + "}";
+    }
+
+}
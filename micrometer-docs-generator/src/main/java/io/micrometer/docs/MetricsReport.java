@@ -0,0 +1,180 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.docs.commons.DocsGeneratorObservationDocumentation;
+import io.micrometer.docs.commons.JavaSourceCache;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Summary of the meters recorded while generating the documents.
+ * <p>
+ * The {@link DocsGeneratorObservationDocumentation} observations are recorded as timers,
+ * so that the report shows where the time goes. Their events are recorded as counters,
+ * e.g. {@code docs.generator.resolve.enums} for the documentation enums found and
+ * {@code docs.generator.resolve.entries} for the documentation entries emitted. The
+ * number of parsed files is the count of the {@code docs.generator.parse} timers.
+ */
+final class MetricsReport {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ObservationRegistry observationRegistry = ObservationRegistry.create();
+
+    MetricsReport() {
+        this.observationRegistry.observationConfig()
+            .observationHandler(new DefaultMeterObservationHandler(this.meterRegistry));
+    }
+
+    ObservationRegistry getObservationRegistry() {
+        return this.observationRegistry;
+    }
+
+    /**
+     * Report the hits, misses and evictions of the given cache.
+     * @param sourceCache source cache used by the lookups
+     */
+    void bindSourceCache(JavaSourceCache sourceCache) {
+        FunctionCounter.builder("docs.generator.source.cache.hits", sourceCache, JavaSourceCache::getHitCount)
+            .register(this.meterRegistry);
+        FunctionCounter.builder("docs.generator.source.cache.misses", sourceCache, JavaSourceCache::getMissCount)
+            .register(this.meterRegistry);
+        FunctionCounter
+            .builder("docs.generator.source.cache.evictions", sourceCache, JavaSourceCache::getEvictionCount)
+            .register(this.meterRegistry);
+    }
+
+    /**
+     * Write the report as JSON.
+     * @param file file to write
+     * @throws IOException If the file can't be written.
+     */
+    void writeJson(Path file) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\n  \"meters\": [");
+        String separator = "\n";
+        for (Meter meter : getMeters()) {
+            sb.append(separator).append("    {\"name\": ").append(quote(meter.getId().getName()));
+            sb.append(", \"tags\": {");
+            sb.append(meter.getId()
+                .getTags()
+                .stream()
+                .map((tag) -> quote(tag.getKey()) + ": " + quote(tag.getValue()))
+                .collect(Collectors.joining(", ")));
+            sb.append("}, \"count\": ").append(count(meter));
+            if (meter instanceof Timer) {
+                Timer timer = (Timer) meter;
+                sb.append(", \"totalTimeMs\": ").append(millis(timer.totalTime(TimeUnit.MILLISECONDS)));
+                sb.append(", \"maxMs\": ").append(millis(timer.max(TimeUnit.MILLISECONDS)));
+            }
+            sb.append('}');
+            separator = ",\n";
+        }
+        sb.append("\n  ]\n}\n");
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.write(file, sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Return the report as a human-readable table.
+     * @return lines of the table
+     */
+    List<String> toTable() {
+        String format = "%-40s %-50s %10s %12s %10s";
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, format, "Name", "Tags", "Count", "Total (ms)", "Max (ms)"));
+        for (Meter meter : getMeters()) {
+            String tags = meter.getId()
+                .getTags()
+                .stream()
+                .map((tag) -> tag.getKey() + "=" + tag.getValue())
+                .collect(Collectors.joining(","));
+            String total = "";
+            String max = "";
+            if (meter instanceof Timer) {
+                Timer timer = (Timer) meter;
+                total = millis(timer.totalTime(TimeUnit.MILLISECONDS));
+                max = millis(timer.max(TimeUnit.MILLISECONDS));
+            }
+            lines.add(String.format(Locale.ROOT, format, meter.getId().getName(), tags, count(meter), total, max));
+        }
+        return lines;
+    }
+
+    // Timers and counters sorted by name and tags. The long task timers of the
+    // observations are only meaningful while running, so they are not reported.
+    private List<Meter> getMeters() {
+        return this.meterRegistry.getMeters()
+            .stream()
+            .filter((meter) -> meter instanceof Timer || meter instanceof Counter || meter instanceof FunctionCounter)
+            .sorted(Comparator.comparing((Meter meter) -> meter.getId().getName())
+                .thenComparing((meter) -> meter.getId().getTags().toString()))
+            .collect(Collectors.toList());
+    }
+
+    private static long count(Meter meter) {
+        if (meter instanceof Timer) {
+            return ((Timer) meter).count();
+        }
+        if (meter instanceof Counter) {
+            return (long) ((Counter) meter).count();
+        }
+        return (long) ((FunctionCounter) meter).count();
+    }
+
+    private static String millis(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    private static String quote(String value) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            }
+            else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            }
+            else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import io.micrometer.common.lang.Nullable;
+import io.micrometer.common.util.internal.logging.InternalLogger;
+import io.micrometer.common.util.internal.logging.InternalLoggerFactory;
+
+/**
+ * Watch the java files under a project root with a {@link WatchService}.
+ * <p>
+ * Every directory under the project root is registered, including the ones created
+ * later, except the hidden directories such as {@code .git} and the build output
+ * directories ({@code build}, {@code target} and {@code node_modules}). Only the java
+ * files matching the inclusion pattern are reported. A burst of events, e.g. from saving
+ * several files or switching branches, is reported as one set of changes once no event
+ * arrived for the {@link #QUIET_PERIOD_MILLIS quiet period}.
+ * When events were lost, the project root is reported.
+ */
+final class ProjectWatcher implements Closeable {
+
+    private static final InternalLogger logger = InternalLoggerFactory.getInstance(ProjectWatcher.class);
+
+    static final long QUIET_PERIOD_MILLIS = 100;
+
+    private static final Set<String> SKIPPED_DIRECTORY_NAMES = new HashSet<>(
+            Arrays.asList("build", "target", "node_modules"));
+
+    private final Path projectRoot;
+
+    private final Pattern inclusionPattern;
+
+    private final WatchService watchService;
+
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+
+    ProjectWatcher(Path projectRoot, Pattern inclusionPattern) throws IOException {
+        this.projectRoot = projectRoot;
+        this.inclusionPattern = inclusionPattern;
+        this.watchService = projectRoot.getFileSystem().newWatchService();
+        registerAll(projectRoot, null);
+    }
+
+    /**
+     * Wait for changes of the watched java files.
+     * @param timeout maximum time to wait for the first change
+     * @param unit unit of the timeout
+     * @return the added, modified or deleted java files, empty if none changed before the
+     * timeout
+     * @throws IOException If a new directory can't be registered.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    Set<Path> awaitChanges(long timeout, TimeUnit unit) throws IOException, InterruptedException {
+        Set<Path> changes = new LinkedHashSet<>();
+        WatchKey key = this.watchService.poll(timeout, unit);
+        while (key != null) {
+            collect(key, changes);
+            key = this.watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        return changes;
+    }
+
+    private void collect(WatchKey key, Set<Path> changes) throws IOException {
+        Path directory = this.directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || directory == null) {
+                logger.debug("Lost file events under [" + this.projectRoot + "]");
+                changes.add(this.projectRoot);
+                continue;
+            }
+            Path path = directory.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE
+                    && Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                // files may be created before the directory is registered
+                try {
+                    registerAll(path, changes);
+                }
+                catch (NoSuchFileException ex) {
+                    logger.debug("Directory [" + path + "] was deleted while registering it");
+                }
+            }
+            else if (isIncluded(path)) {
+                changes.add(path);
+            }
+        }
+        if (!key.reset()) {
+            // the directory is gone, and so are the java files in it
+            this.directories.remove(key);
+            if (directory != null) {
+                changes.add(directory);
+            }
+        }
+    }
+
+    private void registerAll(Path root, @Nullable Set<Path> changes) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (isSkipped(dir)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                WatchKey key = dir.register(ProjectWatcher.this.watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                ProjectWatcher.this.directories.put(key, dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (changes != null && isIncluded(file)) {
+                    changes.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+        });
+    }
+
+    private boolean isSkipped(Path dir) {
+        Path name = dir.getFileName();
+        if (dir.equals(this.projectRoot) || name == null) {
+            return false;
+        }
+        return name.toString().startsWith(".") || SKIPPED_DIRECTORY_NAMES.contains(name.toString());
+    }
+
+    private boolean isIncluded(Path path) {
+        return path.toString().endsWith(".java") && this.inclusionPattern.matcher(path.toString()).matches();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.watchService.close();
+    }
+
+}
@@ -16,66 +16,63 @@
 
 package io.micrometer.docs.commons;
 
-import java.io.IOException;
-import java.nio.file.FileVisitResult;
-import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
-import java.util.regex.Pattern;
 
 import io.micrometer.common.lang.Nullable;
 import io.micrometer.common.util.internal.logging.InternalLogger;
 import io.micrometer.common.util.internal.logging.InternalLoggerFactory;
+import io.micrometer.docs.commons.DocsGeneratorObservationDocumentation.ResolveEvents;
 import io.micrometer.docs.commons.utils.StringUtils;
-import org.jboss.forge.roaster.Roaster;
+import io.micrometer.observation.Observation;
 import org.jboss.forge.roaster.model.source.EnumConstantSource;
 import org.jboss.forge.roaster.model.source.JavaEnumSource;
 import org.jboss.forge.roaster.model.source.JavaSource;
 import org.jboss.forge.roaster.model.source.MethodSource;
 
 /**
- * Shared logic to process documentation enum classes.
+ * Shared logic to process documentation enum classes from the sources parsed by a
+ * {@link JavaSourceScanner}.
  *
+ * @param <T> type of the documentation entry created for each enum constant
  * @author Tadaya Tsuyukubo
  */
-public abstract class AbstractSearchingFileVisitor extends SimpleFileVisitor<Path> {
+public abstract class AbstractSearchingProcessor<T> implements JavaSourceProcessor {
 
-    private static final InternalLogger logger = InternalLoggerFactory.getInstance(AbstractSearchingFileVisitor.class);
-
-    protected final Pattern pattern;
+    private static final InternalLogger logger = InternalLoggerFactory.getInstance(AbstractSearchingProcessor.class);
 
     protected final JavaSourceSearchHelper searchHelper;
 
-    public AbstractSearchingFileVisitor(Pattern pattern, JavaSourceSearchHelper searchHelper) {
-        this.pattern = pattern;
+    public AbstractSearchingProcessor(JavaSourceSearchHelper searchHelper) {
         this.searchHelper = searchHelper;
     }
 
     @Override
-    public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) throws IOException {
-        if (!this.pattern.matcher(path.toString()).matches()) {
-            return FileVisitResult.CONTINUE;
-        }
-        else if (!path.toString().endsWith(".java")) {
-            return FileVisitResult.CONTINUE;
-        }
+    public void process(JavaSource<?> javaSource) {
+        prepare(javaSource).run();
+    }
 
-        logger.debug("Parsing [" + path + "]");
-        JavaSource<?> javaSource = Roaster.parse(JavaSource.class, path.toFile());
+    @Override
+    public Runnable prepare(JavaSource<?> javaSource) {
+        List<T> entries = createEntries(javaSource);
+        return () -> entries.forEach(this::addEntry);
+    }
+
+    private List<T> createEntries(JavaSource<?> javaSource) {
+        List<T> entries = new ArrayList<>();
         if (!javaSource.isEnum()) {
-            return FileVisitResult.CONTINUE;
+            return entries;
         }
         JavaEnumSource enumSource = (JavaEnumSource) javaSource;
 
         if (supportedInterfaces().stream().noneMatch(enumSource::hasInterface)) {
-            return FileVisitResult.CONTINUE;
+            return entries;
         }
 
         logger.debug("Checking [" + javaSource.getName() + "]");
+        recordEvent(ResolveEvents.ENUM_FOUND);
         if (enumSource.getMethods().size() > 0) {
             String message = String.format(
                     "The enum constants can define methods but the container enum class(%s) cannot define methods.",
@@ -83,20 +80,47 @@ public abstract class AbstractSearchingFileVisitor extends SimpleFileVisitor<Pat
             throw new RuntimeException(message);
         }
         if (enumSource.getEnumConstants().size() == 0) {
-            return FileVisitResult.CONTINUE;
+            return entries;
         }
         for (EnumConstantSource enumConstant : enumSource.getEnumConstants()) {
-            if (enumConstant.getBody().getMethods().isEmpty()) {
+            if (!ParsingUtils.hasBody(enumConstant) || enumConstant.getBody().getMethods().isEmpty()) {
                 continue;
             }
-            onEnumConstant(enumSource, enumConstant);
+            entries.add(onEnumConstant(enumSource, enumConstant));
+            recordEvent(ResolveEvents.ENTRY_EMITTED);
+        }
+        return entries;
+    }
+
+    /**
+     * Record the event on the current observation, i.e. the
+     * {@link DocsGeneratorObservationDocumentation#RESOLVE} observation of a scan.
+     * @param event event to record
+     */
+    protected void recordEvent(Observation.Event event) {
+        Observation observation = this.searchHelper.getObservationRegistry().getCurrentObservation();
+        if (observation != null) {
+            observation.event(event);
         }
-        return FileVisitResult.CONTINUE;
     }
 
     public abstract Collection<Class<?>> supportedInterfaces();
 
-    public abstract void onEnumConstant(JavaEnumSource enclosingEnumSource, EnumConstantSource enumConstant);
+    /**
+     * Create the documentation entry for the enum constant. When sources are scanned in
+     * parallel, this is called concurrently and must not modify shared state.
+     * @param enclosingEnumSource enclosing enum
+     * @param enumConstant enum constant
+     * @return documentation entry
+     */
+    public abstract T onEnumConstant(JavaEnumSource enclosingEnumSource, EnumConstantSource enumConstant);
+
+    /**
+     * Add the entry created by {@link #onEnumConstant(JavaEnumSource, EnumConstantSource)}
+     * to the result. This is called in the order of the scanned sources.
+     * @param entry documentation entry
+     */
+    protected abstract void addEntry(T entry);
 
     protected void validateNameOrConvention(String name, @Nullable String conventionClassName,
             JavaEnumSource enclosingEnum) {
@@ -116,9 +140,9 @@ public abstract class AbstractSearchingFileVisitor extends SimpleFileVisitor<Pat
         }
     }
 
-    protected <T> List<T> retrieveEnumValues(JavaSource<?> enclosingJavaSource, MethodSource<?> methodSource,
+    protected <E> List<E> retrieveEnumValues(JavaSource<?> enclosingJavaSource, MethodSource<?> methodSource,
             EntryEnumConstantReader<?> converter) {
-        List<T> result = new ArrayList<>();
+        List<E> result = new ArrayList<>();
         Set<String> enumClassNames = ParsingUtils.readEnumClassNames(methodSource);
         for (String enumClassName : enumClassNames) {
             JavaSource<?> enclosingEnumClass = this.searchHelper.searchReferencingClass(enclosingJavaSource,
@@ -126,7 +150,7 @@ public abstract class AbstractSearchingFileVisitor extends SimpleFileVisitor<Pat
             if (enclosingEnumClass == null || !enclosingEnumClass.isEnum()) {
                 throw new IllegalStateException("Cannot find enum class with name [" + enumClassName + "]");
             }
-            result.addAll(ParsingUtils.retrieveModelsFromEnum((JavaEnumSource) enclosingEnumClass, converter));
+            result.addAll(this.searchHelper.retrieveModelsFromEnum((JavaEnumSource) enclosingEnumClass, converter));
         }
         return result;
     }
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs.commons;
+
+import io.micrometer.common.docs.KeyName;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.docs.ObservationDocumentation;
+
+/**
+ * Observations of the phases of the documentation generation.
+ * <p>
+ * They are recorded with the {@link io.micrometer.observation.ObservationRegistry} given
+ * to {@link JavaSourceSearchHelper.Builder#observationRegistry}. By default, nothing is
+ * recorded.
+ */
+public enum DocsGeneratorObservationDocumentation implements ObservationDocumentation {
+
+    /**
+     * Walk of the project root to collect the java files.
+     */
+    WALK {
+        @Override
+        public String getName() {
+            return "docs.generator.walk";
+        }
+
+    },
+
+    /**
+     * Parse of a single java file, either fully or only its declarations.
+     */
+    PARSE {
+        @Override
+        public String getName() {
+            return "docs.generator.parse";
+        }
+
+        @Override
+        public KeyName[] getLowCardinalityKeyNames() {
+            return ParseKeyNames.values();
+        }
+
+    },
+
+    /**
+     * Creation of the documentation entries of a single parsed java file. This includes
+     * the lookups of the referenced classes.
+     */
+    RESOLVE {
+        @Override
+        public String getName() {
+            return "docs.generator.resolve";
+        }
+
+        @Override
+        public Observation.Event[] getEvents() {
+            return ResolveEvents.values();
+        }
+
+    },
+
+    /**
+     * Validation of the collected entries of a document.
+     */
+    VALIDATE {
+        @Override
+        public String getName() {
+            return "docs.generator.validate";
+        }
+
+        @Override
+        public KeyName[] getLowCardinalityKeyNames() {
+            return DocumentKeyNames.values();
+        }
+
+    },
+
+    /**
+     * Rendering of a document.
+     */
+    RENDER {
+        @Override
+        public String getName() {
+            return "docs.generator.render";
+        }
+
+        @Override
+        public KeyName[] getLowCardinalityKeyNames() {
+            return KeyName.merge(DocumentKeyNames.values(), RenderKeyNames.values());
+        }
+
+    };
+
+    public enum ParseKeyNames implements KeyName {
+
+        /**
+         * Why the file is parsed. {@code declarations} when only the declarations are
+         * read to build the index of the project, {@code index} when the file is fully
+         * parsed for the index instead, {@code scan} while scanning the candidate files
+         * for documentation entries.
+         */
+        SOURCE {
+            @Override
+            public String asString() {
+                return "source";
+            }
+        }
+
+    }
+
+    public enum DocumentKeyNames implements KeyName {
+
+        /**
+         * File name of the generated document.
+         */
+        DOCUMENT {
+            @Override
+            public String asString() {
+                return "document";
+            }
+        }
+
+    }
+
+    public enum RenderKeyNames implements KeyName {
+
+        /**
+         * {@code written} when the document was written, {@code unchanged} when it had
+         * the same content already, or {@code skipped} when rendering was skipped since
+         * the template and the model are unchanged.
+         */
+        OUTCOME {
+            @Override
+            public String asString() {
+                return "outcome";
+            }
+        }
+
+    }
+
+    public enum ResolveEvents implements Observation.Event {
+
+        /**
+         * A documentation enum was found.
+         */
+        ENUM_FOUND {
+            @Override
+            public String getName() {
+                return "enums";
+            }
+        },
+
+        /**
+         * A documentation entry was created.
+         */
+        ENTRY_EMITTED {
+            @Override
+            public String getName() {
+                return "entries";
+            }
+        }
+
+    }
+
+}
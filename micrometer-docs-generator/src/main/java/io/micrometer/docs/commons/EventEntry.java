@@ -44,6 +44,11 @@ public class EventEntry implements Comparable<EventEntry> {
         return this.name.compareTo(other.name);
     }
 
+    @Override
+    public String toString() {
+        return "EventEntry{name='" + this.name + "', description='" + this.description + "'}";
+    }
+
     public String getName() {
         return this.name;
     }
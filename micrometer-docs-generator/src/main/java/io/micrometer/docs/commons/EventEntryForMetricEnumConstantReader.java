@@ -16,7 +16,6 @@
 
 package io.micrometer.docs.commons;
 
-import io.micrometer.docs.commons.utils.AsciidocUtils;
 import io.micrometer.docs.commons.utils.Assert;
 import io.micrometer.observation.Observation;
 import org.jboss.forge.roaster.model.source.EnumConstantSource;
@@ -37,7 +36,7 @@ public class EventEntryForMetricEnumConstantReader implements EntryEnumConstantR
 
     @Override
     public EventEntry apply(EnumConstantSource enumConstantSource) {
-        String description = AsciidocUtils.javadocToAsciidoc(enumConstantSource.getJavaDoc());
+        String description = ParsingUtils.enumConstantDescription(enumConstantSource);
         String name = ParsingUtils.enumMethodValue(enumConstantSource, "getName");
         Assert.notNull(name, "Event enum constants require readable getName() for metrics documentation.");
 
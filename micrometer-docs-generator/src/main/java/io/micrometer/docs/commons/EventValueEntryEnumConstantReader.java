@@ -16,7 +16,6 @@
 
 package io.micrometer.docs.commons;
 
-import io.micrometer.docs.commons.utils.AsciidocUtils;
 import io.micrometer.docs.commons.utils.Assert;
 import io.micrometer.tracing.docs.EventValue;
 import org.jboss.forge.roaster.model.source.EnumConstantSource;
@@ -37,7 +36,7 @@ public class EventValueEntryEnumConstantReader implements EntryEnumConstantReade
 
     @Override
     public EventEntry apply(EnumConstantSource enumConstantSource) {
-        String description = AsciidocUtils.javadocToAsciidoc(enumConstantSource.getJavaDoc());
+        String description = ParsingUtils.enumConstantDescription(enumConstantSource);
         String value = ParsingUtils.enumMethodValue(enumConstantSource, "getValue");
         Assert.notNull(value, "EventValue enum constants require readable getValue().");
 
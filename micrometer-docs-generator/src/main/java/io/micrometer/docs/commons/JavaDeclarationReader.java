@@ -0,0 +1,378 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs.commons;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+import io.micrometer.common.lang.Nullable;
+
+/**
+ * Read the package and the member type declarations of a java file without parsing it.
+ * <p>
+ * Only the tokens of the compilation unit and of the type bodies are read. Method
+ * bodies, initializers and other blocks are skipped at the character level, taking care
+ * of comments and literals. For each type, the name, whether it is an enum and the simple
+ * names of its super types are returned.
+ * <p>
+ * When the source is not understood, {@code null} is returned and the caller is expected
+ * to fall back to a full parse. This is the case for a default package, for multiple top
+ * level types, for unicode escapes and for annotations in type headers.
+ */
+final class JavaDeclarationReader {
+
+    private final String source;
+
+    private int position;
+
+    private JavaDeclarationReader(String source) {
+        this.source = source;
+    }
+
+    /**
+     * Read the type declarations of the given source.
+     * @param source java source
+     * @return the top level type and its member types in the declaration order (depth
+     * first), or {@code null} if the source is not understood
+     */
+    @Nullable
+    static List<TypeDeclaration> read(String source) {
+        // unicode escapes are translated before tokenizing, e.g. """ ends a string
+        if (source.contains("\\u")) {
+            return null;
+        }
+        try {
+            return new JavaDeclarationReader(source).readDeclarations();
+        }
+        catch (UnsupportedSourceException ex) {
+            return null;
+        }
+    }
+
+    private List<TypeDeclaration> readDeclarations() {
+        String packageName = null;
+        List<TypeDeclaration> declarations = new ArrayList<>();
+        Deque<TypeDeclaration> enclosingTypes = new ArrayDeque<>();
+        int topLevelTypes = 0;
+        String previous = null;
+        String token;
+        while ((token = next()) != null) {
+            if (enclosingTypes.isEmpty() && "package".equals(token) && packageName == null && topLevelTypes == 0) {
+                packageName = readPackageName();
+            }
+            else if (enclosingTypes.isEmpty() && "import".equals(token)) {
+                skipStatement();
+            }
+            else if ("{".equals(token)) {
+                skipBlock();
+            }
+            else if ("}".equals(token)) {
+                if (enclosingTypes.isEmpty()) {
+                    throw new UnsupportedSourceException();
+                }
+                enclosingTypes.pop();
+            }
+            else if (isTypeDeclaration(token, previous)) {
+                TypeDeclaration type = readTypeDeclaration(token, packageName, enclosingTypes.peek());
+                if (enclosingTypes.isEmpty()) {
+                    topLevelTypes++;
+                }
+                declarations.add(type);
+                enclosingTypes.push(type);
+                token = "{";
+            }
+            previous = token;
+        }
+        if (packageName == null || topLevelTypes != 1 || !enclosingTypes.isEmpty()) {
+            throw new UnsupportedSourceException();
+        }
+        return declarations;
+    }
+
+    private boolean isTypeDeclaration(String token, @Nullable String previous) {
+        if (".".equals(previous)) {
+            return false; // e.g. "Foo.class"
+        }
+        switch (token) {
+            case "class":
+            case "interface":
+            case "enum":
+                return true;
+            case "record":
+                // contextual keyword: "record Foo(" or "record Foo<"
+                int mark = this.position;
+                String name = next();
+                String next = next();
+                this.position = mark;
+                return name != null && isIdentifier(name) && ("(".equals(next) || "<".equals(next));
+            default:
+                return false;
+        }
+    }
+
+    private TypeDeclaration readTypeDeclaration(String keyword, @Nullable String packageName,
+            @Nullable TypeDeclaration enclosingType) {
+        String name = next();
+        if (name == null || !isIdentifier(name)) {
+            throw new UnsupportedSourceException();
+        }
+        List<String> superTypes = new ArrayList<>();
+        boolean inSuperTypes = false;
+        String lastIdentifier = null;
+        int typeArgumentDepth = 0;
+        String token;
+        while (!"{".equals(token = next()) || typeArgumentDepth > 0) {
+            if (token == null || ";".equals(token) || "@".equals(token)) {
+                throw new UnsupportedSourceException();
+            }
+            else if ("<".equals(token)) {
+                typeArgumentDepth++;
+            }
+            else if (">".equals(token)) {
+                typeArgumentDepth--;
+            }
+            else if (typeArgumentDepth > 0) {
+                continue;
+            }
+            else if ("(".equals(token)) {
+                skipParentheses(); // record components
+            }
+            else if ("extends".equals(token) || "implements".equals(token) || "permits".equals(token)) {
+                addSuperType(superTypes, inSuperTypes, lastIdentifier);
+                inSuperTypes = !"permits".equals(token);
+                lastIdentifier = null;
+            }
+            else if (",".equals(token)) {
+                addSuperType(superTypes, inSuperTypes, lastIdentifier);
+                lastIdentifier = null;
+            }
+            else if (isIdentifier(token)) {
+                lastIdentifier = token; // the last segment of a qualified name
+            }
+        }
+        addSuperType(superTypes, inSuperTypes, lastIdentifier);
+
+        String qualifiedName;
+        String canonicalName;
+        if (enclosingType != null) {
+            qualifiedName = enclosingType.qualifiedName + "$" + name;
+            canonicalName = enclosingType.canonicalName + "." + name;
+        }
+        else {
+            qualifiedName = packageName + "." + name;
+            canonicalName = qualifiedName;
+        }
+        return new TypeDeclaration(qualifiedName, canonicalName, name, "enum".equals(keyword), superTypes);
+    }
+
+    private static void addSuperType(List<String> superTypes, boolean inSuperTypes, @Nullable String name) {
+        if (inSuperTypes && name != null) {
+            superTypes.add(name);
+        }
+    }
+
+    private String readPackageName() {
+        StringBuilder sb = new StringBuilder();
+        String token;
+        while (!";".equals(token = next())) {
+            if (token == null || !(".".equals(token) || isIdentifier(token))) {
+                throw new UnsupportedSourceException();
+            }
+            sb.append(token);
+        }
+        return sb.toString();
+    }
+
+    private void skipStatement() {
+        String token;
+        while (!";".equals(token = next())) {
+            if (token == null) {
+                throw new UnsupportedSourceException();
+            }
+        }
+    }
+
+    private void skipParentheses() {
+        int depth = 1;
+        while (depth > 0) {
+            String token = next();
+            if (token == null) {
+                throw new UnsupportedSourceException();
+            }
+            else if ("(".equals(token)) {
+                depth++;
+            }
+            else if (")".equals(token)) {
+                depth--;
+            }
+        }
+    }
+
+    // skip to the matching closing brace without creating tokens
+    private void skipBlock() {
+        int depth = 1;
+        int length = this.source.length();
+        while (this.position < length) {
+            if (skipCommentOrLiteral()) {
+                continue;
+            }
+            char c = this.source.charAt(this.position++);
+            if (c == '{') {
+                depth++;
+            }
+            else if (c == '}' && --depth == 0) {
+                return;
+            }
+        }
+        throw new UnsupportedSourceException();
+    }
+
+    /**
+     * Return the next identifier, keyword or single character symbol. Comments, literals
+     * and numbers are skipped.
+     * @return the next token or {@code null} at the end of the source
+     */
+    @Nullable
+    private String next() {
+        int length = this.source.length();
+        while (this.position < length) {
+            char c = this.source.charAt(this.position);
+            if (Character.isWhitespace(c)) {
+                this.position++;
+            }
+            else if (skipCommentOrLiteral()) {
+                continue;
+            }
+            else if (Character.isJavaIdentifierStart(c)) {
+                int start = this.position;
+                do {
+                    this.position++;
+                }
+                while (this.position < length && Character.isJavaIdentifierPart(this.source.charAt(this.position)));
+                return this.source.substring(start, this.position);
+            }
+            else if (Character.isDigit(c)) {
+                do {
+                    this.position++;
+                }
+                while (this.position < length && (Character.isJavaIdentifierPart(this.source.charAt(this.position))
+                        || this.source.charAt(this.position) == '.'));
+            }
+            else {
+                this.position++;
+                return String.valueOf(c);
+            }
+        }
+        return null;
+    }
+
+    private boolean skipCommentOrLiteral() {
+        char c = this.source.charAt(this.position);
+        if (c == '/' && this.source.startsWith("//", this.position)) {
+            int end = this.source.indexOf('\n', this.position);
+            this.position = (end == -1) ? this.source.length() : end + 1;
+        }
+        else if (c == '/' && this.source.startsWith("/*", this.position)) {
+            int end = this.source.indexOf("*/", this.position + 2);
+            if (end == -1) {
+                throw new UnsupportedSourceException();
+            }
+            this.position = end + 2;
+        }
+        else if (c == '"' && this.source.startsWith("\"\"\"", this.position)) {
+            skipLiteral(this.position + 3, "\"\"\"", true);
+        }
+        else if (c == '"') {
+            skipLiteral(this.position + 1, "\"", false);
+        }
+        else if (c == '\'') {
+            skipLiteral(this.position + 1, "'", false);
+        }
+        else {
+            return false;
+        }
+        return true;
+    }
+
+    private void skipLiteral(int start, String delimiter, boolean multiline) {
+        int i = start;
+        int length = this.source.length();
+        while (i < length) {
+            char c = this.source.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            }
+            else if (this.source.startsWith(delimiter, i)) {
+                this.position = i + delimiter.length();
+                return;
+            }
+            else if (!multiline && (c == '\n' || c == '\r')) {
+                break;
+            }
+            else {
+                i++;
+            }
+        }
+        throw new UnsupportedSourceException();
+    }
+
+    private static boolean isIdentifier(String token) {
+        return Character.isJavaIdentifierStart(token.charAt(0));
+    }
+
+    /**
+     * A type declared in a java file.
+     */
+    static final class TypeDeclaration {
+
+        // e.g. "io.micrometer.Foo$Bar"
+        final String qualifiedName;
+
+        // e.g. "io.micrometer.Foo.Bar"
+        final String canonicalName;
+
+        // e.g. "Bar"
+        final String simpleName;
+
+        final boolean isEnum;
+
+        // simple names of the extended and implemented types, e.g. "ObservationConvention"
+        final List<String> superTypes;
+
+        TypeDeclaration(String qualifiedName, String canonicalName, String simpleName, boolean isEnum,
+                List<String> superTypes) {
+            this.qualifiedName = qualifiedName;
+            this.canonicalName = canonicalName;
+            this.simpleName = simpleName;
+            this.isEnum = isEnum;
+            this.superTypes = Collections.unmodifiableList(superTypes);
+        }
+
+    }
+
+    private static final class UnsupportedSourceException extends RuntimeException {
+
+        UnsupportedSourceException() {
+            super(null, null, false, false);
+        }
+
+    }
+
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs.commons;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import io.micrometer.common.util.internal.logging.InternalLogger;
+import io.micrometer.common.util.internal.logging.InternalLoggerFactory;
+import org.jboss.forge.roaster.Roaster;
+import org.jboss.forge.roaster.model.source.JavaSource;
+
+/**
+ * Bounded cache of parsed top level {@link JavaSource}s keyed by file path.
+ * <p>
+ * An entry is only reused while the last modified time of the file is unchanged. When
+ * the cache reaches its maximum size, the least recently used entry is evicted.
+ * <p>
+ * The returned sources are shared by all callers, possibly from multiple threads, and
+ * must not be modified (see {@link JavaSourceScanner}). The thread-safety of this class
+ * covers the cache itself, not the concurrent use of a returned source.
+ * <p>
+ * This class is thread-safe. Files are parsed outside of the lock, so concurrent lookups
+ * of different files do not wait for each other. Concurrent lookups of the same uncached
+ * file may parse it more than once, but they return the instance cached first.
+ */
+public class JavaSourceCache {
+
+    private static final InternalLogger logger = InternalLoggerFactory.getInstance(JavaSourceCache.class);
+
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    private final int maxSize;
+
+    private final Map<Path, CachedSource> cache;
+
+    private long hitCount;
+
+    private long missCount;
+
+    private long evictionCount;
+
+    public JavaSourceCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Create a cache which keeps at most the given number of parsed files.
+     * @param maxSize maximum number of cached files. {@code 0} disables caching.
+     */
+    public JavaSourceCache(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize must not be negative but was " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.cache = new LinkedHashMap<Path, CachedSource>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, CachedSource> eldest) {
+                if (size() > JavaSourceCache.this.maxSize) {
+                    JavaSourceCache.this.evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+
+        };
+    }
+
+    /**
+     * Return the parsed top level {@link JavaSource} of the given file. The file is
+     * parsed when it is not cached yet or when it was modified since it was cached.
+     * @param path java file
+     * @return parsed java source
+     */
+    public JavaSource<?> get(Path path) {
+        return get(path, JavaSourceCache::parse);
+    }
+
+    /**
+     * Return the parsed top level {@link JavaSource} of the given file, parsing it with
+     * the given parser when it is not cached yet or when it was modified since it was
+     * cached.
+     * @param path java file
+     * @param parser parser of the file
+     * @return parsed java source
+     */
+    JavaSource<?> get(Path path, Function<Path, JavaSource<?>> parser) {
+        long lastModified = lastModified(path);
+        synchronized (this) {
+            CachedSource cached = this.cache.get(path);
+            if (cached != null && cached.lastModified == lastModified) {
+                this.hitCount++;
+                return cached.javaSource;
+            }
+            this.missCount++;
+        }
+        // parse without the lock so that lookups of other files are not blocked
+        logger.trace("Parsing [" + path + "]");
+        JavaSource<?> javaSource = parser.apply(path);
+        if (this.maxSize == 0) {
+            return javaSource;
+        }
+        synchronized (this) {
+            CachedSource cached = this.cache.get(path);
+            if (cached != null && cached.lastModified == lastModified) {
+                // parsed by another thread meanwhile, share a single instance
+                return cached.javaSource;
+            }
+            this.cache.put(path, new CachedSource(lastModified, javaSource));
+        }
+        return javaSource;
+    }
+
+    public synchronized long getHitCount() {
+        return this.hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return this.missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return this.evictionCount;
+    }
+
+    public synchronized int size() {
+        return this.cache.size();
+    }
+
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "JavaSourceCache{size=" + this.cache.size() + ", maxSize=" + this.maxSize + ", hits=" + this.hitCount
+                + ", misses=" + this.missCount + ", evictions=" + this.evictionCount + "}";
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        }
+        catch (IOException ex) {
+            throw new RuntimeException("Failed to read last modified time of " + path, ex);
+        }
+    }
+
+    private static JavaSource<?> parse(Path path) {
+        try {
+            return Roaster.parse(JavaSource.class, path.toFile());
+        }
+        catch (IOException ex) {
+            throw new RuntimeException("Failed to parse " + path, ex);
+        }
+    }
+
+    private static class CachedSource {
+
+        private final long lastModified;
+
+        private final JavaSource<?> javaSource;
+
+        CachedSource(long lastModified, JavaSource<?> javaSource) {
+            this.lastModified = lastModified;
+            this.javaSource = javaSource;
+        }
+
+    }
+
+}
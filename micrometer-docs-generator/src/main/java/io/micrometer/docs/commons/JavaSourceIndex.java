@@ -0,0 +1,473 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs.commons;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.micrometer.common.lang.Nullable;
+import io.micrometer.common.util.internal.logging.InternalLogger;
+import io.micrometer.common.util.internal.logging.InternalLoggerFactory;
+import io.micrometer.docs.commons.DocsGeneratorObservationDocumentation.ParseKeyNames;
+import io.micrometer.docs.commons.JavaDeclarationReader.TypeDeclaration;
+import io.micrometer.docs.commons.JavaSourceSearchHelper.JavaSourcePathInfo;
+import io.micrometer.docs.commons.utils.DigestUtils;
+import io.micrometer.docs.commons.utils.FileUtils;
+import io.micrometer.docs.commons.utils.ParallelUtils;
+import io.micrometer.observation.GlobalObservationConvention;
+import io.micrometer.observation.ObservationConvention;
+import io.micrometer.observation.ObservationRegistry;
+import org.jboss.forge.roaster.Roaster;
+import org.jboss.forge.roaster.model.Extendable;
+import org.jboss.forge.roaster.model.InterfaceCapable;
+import org.jboss.forge.roaster.model.source.JavaSource;
+import org.jboss.forge.roaster.model.source.TypeHolderSource;
+
+/**
+ * Index of the classes declared in each java file under a project root.
+ * <p>
+ * The index can be saved to a file and loaded in a later run. When updating an index,
+ * files with an unchanged size and last modified time, or with an unchanged content
+ * hash, reuse their previous entries. Only added and modified files are parsed, and
+ * deleted files are dropped. Index instances are immutable.
+ * <p>
+ * The types of a file are read with {@link JavaDeclarationReader}, which only looks at
+ * the declarations. Files it does not understand are fully parsed with Roaster. Besides
+ * the names, the index keeps the super types of each type, so that the files which may
+ * declare documentation enums or observation conventions are known without parsing all
+ * the files (see {@link #getCandidatePaths()}).
+ */
+public final class JavaSourceIndex {
+
+    private static final InternalLogger logger = InternalLoggerFactory.getInstance(JavaSourceIndex.class);
+
+    /**
+     * Version of the index file format. Index files with a different version are
+     * ignored.
+     */
+    static final int FORMAT_VERSION = 2;
+
+    private static final String HEADER = "# micrometer-docs-generator java source index";
+
+    private static final List<String> CONVENTION_INTERFACE_NAMES = Arrays
+        .asList(ObservationConvention.class.getSimpleName(), GlobalObservationConvention.class.getSimpleName());
+
+    private final Path projectRoot;
+
+    /**
+     * Relative path (with "/" separator) to the file entry in the collected order.
+     */
+    private final Map<String, FileEntry> files;
+
+    private JavaSourceIndex(Path projectRoot, Map<String, FileEntry> files) {
+        this.projectRoot = projectRoot;
+        this.files = Collections.unmodifiableMap(files);
+    }
+
+    /**
+     * Create an empty index for the given project root.
+     * @param projectRoot project root directory
+     * @return empty index
+     */
+    public static JavaSourceIndex empty(Path projectRoot) {
+        return new JavaSourceIndex(projectRoot, new LinkedHashMap<>());
+    }
+
+    /**
+     * Load an index previously saved with {@link #save(Path)}. An empty index is returned
+     * when the file does not exist, cannot be read, has a different format version, or
+     * was created for a different project root.
+     * @param indexFile index file
+     * @param projectRoot project root directory
+     * @return loaded index
+     */
+    public static JavaSourceIndex load(Path indexFile, Path projectRoot) {
+        if (!Files.isRegularFile(indexFile)) {
+            return empty(projectRoot);
+        }
+        Map<String, FileEntry> files = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+            if (!HEADER.equals(reader.readLine())
+                    || !("version\t" + FORMAT_VERSION).equals(reader.readLine())
+                    || !("root\t" + normalizedRoot(projectRoot)).equals(reader.readLine())) {
+                logger.debug("Ignoring the source index [" + indexFile + "] created by another version or project");
+                return empty(projectRoot);
+            }
+            FileEntry current = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] values = line.split("\t", -1);
+                if ("file".equals(values[0]) && values.length == 5) {
+                    current = new FileEntry(projectRoot.resolve(values[1]), values[1], Long.parseLong(values[2]),
+                            Long.parseLong(values[3]), values[4], new ArrayList<>());
+                    files.put(current.relativePath, current);
+                }
+                else if ("type".equals(values[0]) && values.length == 6 && current != null) {
+                    List<String> superTypes = values[5].isEmpty() ? Collections.emptyList()
+                            : Arrays.asList(values[5].split(","));
+                    current.types.add(new TypeEntry(values[1], values[2], values[3], "enum".equals(values[4]),
+                            superTypes));
+                }
+                else {
+                    throw new IllegalStateException("Unexpected line: " + line);
+                }
+            }
+        }
+        catch (IOException | RuntimeException ex) {
+            logger.warn("Ignoring the corrupted source index [" + indexFile + "]", ex);
+            return empty(projectRoot);
+        }
+        return new JavaSourceIndex(projectRoot, files);
+    }
+
+    /**
+     * Save this index to the given file. The file is replaced atomically where supported.
+     * @param indexFile index file
+     */
+    public void save(Path indexFile) {
+        try {
+            Path parent = indexFile.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tempFile = Files.createTempFile(parent, indexFile.getFileName().toString(), ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                writer.write(HEADER + "\n");
+                writer.write("version\t" + FORMAT_VERSION + "\n");
+                writer.write("root\t" + normalizedRoot(this.projectRoot) + "\n");
+                for (FileEntry file : this.files.values()) {
+                    if (!file.isWritable()) {
+                        continue; // parsed again in the next run
+                    }
+                    writer.write("file\t" + file.relativePath + "\t" + file.size + "\t" + file.lastModified + "\t"
+                            + file.hash + "\n");
+                    for (TypeEntry type : file.types) {
+                        writer.write("type\t" + type.qualifiedName + "\t" + type.canonicalName + "\t"
+                                + type.simpleName + "\t" + (type.isEnum ? "enum" : "type") + "\t"
+                                + String.join(",", type.superTypes) + "\n");
+                    }
+                }
+            }
+            FileUtils.moveAtomically(tempFile, indexFile);
+        }
+        catch (IOException ex) {
+            throw new IllegalArgumentException("Failed to save the source index to " + indexFile, ex);
+        }
+    }
+
+    /**
+     * Create an index for the given java files, reusing the entries of this index for
+     * unchanged files.
+     * @param paths java files under the project root in the collected order
+     * @param parallelism number of threads used to read and parse the files
+     * @return updated index
+     */
+    public JavaSourceIndex update(List<Path> paths, int parallelism) {
+        return update(paths, parallelism, ObservationRegistry.NOOP);
+    }
+
+    /**
+     * Create an index for the given java files, reusing the entries of this index for
+     * unchanged files.
+     * @param paths java files under the project root in the collected order
+     * @param parallelism number of threads used to read and parse the files
+     * @param observationRegistry registry to observe the parsing of each file with
+     * @return updated index
+     */
+    public JavaSourceIndex update(List<Path> paths, int parallelism, ObservationRegistry observationRegistry) {
+        List<FileEntry> entries = ParallelUtils.mapInOrder(paths, parallelism, "docs-indexer",
+                (path) -> updateEntry(path, observationRegistry));
+        Map<String, FileEntry> files = new LinkedHashMap<>();
+        int reused = 0;
+        for (FileEntry entry : entries) {
+            if (this.files.get(entry.relativePath) == entry) {
+                reused++;
+            }
+            files.put(entry.relativePath, entry);
+        }
+        logger.debug("Indexed [" + files.size() + "] java files. Reused [" + reused + "], parsed ["
+                + (files.size() - reused) + "]");
+        return new JavaSourceIndex(this.projectRoot, files);
+    }
+
+    /**
+     * Return the number of indexed files.
+     * @return number of indexed files
+     */
+    public int size() {
+        return this.files.size();
+    }
+
+    /**
+     * Return whether this index was created for the given project root.
+     * @param projectRoot project root directory
+     * @return {@code true} if the project roots are the same directory
+     */
+    boolean isFor(Path projectRoot) {
+        return normalizedRoot(this.projectRoot).equals(normalizedRoot(projectRoot));
+    }
+
+    Map<String, JavaSourcePathInfo> toPathInfoMap() {
+        // Merged in the collected order. This keeps the same entry when multiple files
+        // declare the same class.
+        Map<String, JavaSourcePathInfo> map = new HashMap<>();
+        for (FileEntry file : this.files.values()) {
+            for (TypeEntry type : file.types) {
+                map.put(type.qualifiedName, new JavaSourcePathInfo(file.path, type.canonicalName,
+                        type.qualifiedName, type.simpleName));
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Return the files which may declare documentation enums or observation conventions,
+     * in the collected order.
+     * <p>
+     * These are the files with an enum implementing a {@code *Documentation} interface
+     * (e.g. {@code ObservationDocumentation}), or with a type in the hierarchy of
+     * {@code ObservationConvention}. The hierarchy is followed through the simple names
+     * of the super types of the indexed types, so the result may include a few more files
+     * than needed, but none less.
+     * @return candidate files
+     */
+    List<Path> getCandidatePaths() {
+        Map<String, List<TypeEntry>> typesBySuperType = new HashMap<>();
+        for (FileEntry file : this.files.values()) {
+            for (TypeEntry type : file.types) {
+                for (String superType : type.superTypes) {
+                    typesBySuperType.computeIfAbsent(superType, (key) -> new ArrayList<>()).add(type);
+                }
+            }
+        }
+        // A class is also considered as a convention when one of its nested classes is,
+        // so the enclosing types join the hierarchy as well.
+        Set<String> conventionNames = new HashSet<>(CONVENTION_INTERFACE_NAMES);
+        Deque<String> queue = new ArrayDeque<>(conventionNames);
+        while (!queue.isEmpty()) {
+            for (TypeEntry type : typesBySuperType.getOrDefault(queue.poll(), Collections.emptyList())) {
+                String name = type.qualifiedName.substring(type.qualifiedName.lastIndexOf('.') + 1);
+                for (String enclosingOrSelf : name.split("\\$")) {
+                    if (conventionNames.add(enclosingOrSelf)) {
+                        queue.add(enclosingOrSelf);
+                    }
+                }
+            }
+        }
+
+        List<Path> paths = new ArrayList<>();
+        for (FileEntry file : this.files.values()) {
+            for (TypeEntry type : file.types) {
+                if (type.isDocumentationEnum() || type.superTypes.stream().anyMatch(conventionNames::contains)) {
+                    paths.add(file.path);
+                    break;
+                }
+            }
+        }
+        return paths;
+    }
+
+    private FileEntry updateEntry(Path path, ObservationRegistry observationRegistry) {
+        String relativePath = relativePath(path);
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            long size = attributes.size();
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            FileEntry previous = this.files.get(relativePath);
+            if (previous != null && previous.size == size && previous.lastModified == lastModified) {
+                return previous.path.equals(path) ? previous
+                        : new FileEntry(path, relativePath, size, lastModified, previous.hash, previous.types);
+            }
+
+            byte[] content = Files.readAllBytes(path);
+            String hash = DigestUtils.sha256Hex(content);
+            if (previous != null && previous.hash.equals(hash)) {
+                return new FileEntry(path, relativePath, size, lastModified, hash, previous.types);
+            }
+
+            return new FileEntry(path, relativePath, size, lastModified, hash,
+                    readTypes(path, content, observationRegistry));
+        }
+        catch (IOException ex) {
+            throw new RuntimeException("Failed to parse " + path, ex);
+        }
+    }
+
+    private String relativePath(Path path) {
+        Path relative = path.startsWith(this.projectRoot) ? this.projectRoot.relativize(path) : path;
+        return relative.toString().replace('\\', '/');
+    }
+
+    private static List<TypeEntry> readTypes(Path path, byte[] content, ObservationRegistry observationRegistry) {
+        String source = new String(content, StandardCharsets.UTF_8);
+        List<TypeDeclaration> declarations = DocsGeneratorObservationDocumentation.PARSE
+            .observation(observationRegistry)
+            .lowCardinalityKeyValue(ParseKeyNames.SOURCE.asString(), "declarations")
+            .observe(() -> JavaDeclarationReader.read(source));
+        if (declarations != null) {
+            List<TypeEntry> types = new ArrayList<>(declarations.size());
+            for (TypeDeclaration declaration : declarations) {
+                types.add(new TypeEntry(declaration.qualifiedName, declaration.canonicalName, declaration.simpleName,
+                        declaration.isEnum, declaration.superTypes));
+            }
+            return types;
+        }
+
+        logger.debug("Parsing [" + path + "]");
+        JavaSource<?> javaSource = DocsGeneratorObservationDocumentation.PARSE.observation(observationRegistry)
+            .lowCardinalityKeyValue(ParseKeyNames.SOURCE.asString(), "index")
+            .observe(() -> Roaster.parse(JavaSource.class, new ByteArrayInputStream(content)));
+        return readTypes(javaSource);
+    }
+
+    private static List<TypeEntry> readTypes(JavaSource<?> javaSource) {
+        // Because of the equality in JavaClassImpl, nested classes under the same
+        // enclosing class are considered equal. Therefore, here needs to use List
+        // to keep each nested class as an independent entry.
+        List<JavaSource<?>> sources = new ArrayList<>();
+        populateJavaSource(javaSource, sources);
+
+        // To reduce memory usage, for now just keeping the names instead of JavaSource.
+        List<TypeEntry> types = new ArrayList<>(sources.size());
+        for (JavaSource<?> source : sources) {
+            types.add(new TypeEntry(source.getQualifiedName(), source.getCanonicalName(), source.getName(),
+                    source.isEnum(), readSuperTypes(source)));
+        }
+        return types;
+    }
+
+    // simple names of the super types, e.g. "ObservationConvention" for
+    // "io.micrometer.observation.ObservationConvention<Observation.Context>"
+    private static List<String> readSuperTypes(JavaSource<?> javaSource) {
+        List<String> names = new ArrayList<>();
+        if (javaSource instanceof InterfaceCapable) {
+            names.addAll(((InterfaceCapable) javaSource).getInterfaces());
+        }
+        if (javaSource instanceof Extendable) {
+            String superType = ((Extendable<?>) javaSource).getSuperType();
+            if (superType != null && !Object.class.getName().equals(superType)) {
+                names.add(superType);
+            }
+        }
+        List<String> superTypes = new ArrayList<>(names.size());
+        for (String name : names) {
+            int typeArguments = name.indexOf('<');
+            String rawName = (typeArguments != -1) ? name.substring(0, typeArguments) : name;
+            superTypes.add(rawName.substring(rawName.lastIndexOf('.') + 1).trim());
+        }
+        return superTypes;
+    }
+
+    // recursively populate nested classes
+    private static void populateJavaSource(JavaSource<?> javaSource, List<JavaSource<?>> list) {
+        list.add(javaSource);
+        if (javaSource instanceof TypeHolderSource) {
+            for (JavaSource<?> nested : ((TypeHolderSource<?>) javaSource).getNestedTypes()) {
+                populateJavaSource(nested, list);
+            }
+        }
+    }
+
+    private static String normalizedRoot(Path projectRoot) {
+        return projectRoot.toAbsolutePath().normalize().toString();
+    }
+
+    private static final class FileEntry {
+
+        private final Path path;
+
+        private final String relativePath;
+
+        private final long size;
+
+        private final long lastModified;
+
+        private final String hash;
+
+        private final List<TypeEntry> types;
+
+        FileEntry(Path path, String relativePath, long size, long lastModified, String hash, List<TypeEntry> types) {
+            this.path = path;
+            this.relativePath = relativePath;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
+            this.types = types;
+        }
+
+        boolean isWritable() {
+            if (containsSeparator(this.relativePath)) {
+                return false;
+            }
+            for (TypeEntry type : this.types) {
+                if (containsSeparator(type.qualifiedName) || containsSeparator(type.canonicalName)
+                        || containsSeparator(type.simpleName)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean containsSeparator(@Nullable String value) {
+            return value == null || value.indexOf('\t') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        }
+
+    }
+
+    private static final class TypeEntry {
+
+        private final String qualifiedName;
+
+        private final String canonicalName;
+
+        private final String simpleName;
+
+        private final boolean isEnum;
+
+        private final List<String> superTypes;
+
+        TypeEntry(String qualifiedName, String canonicalName, String simpleName, boolean isEnum,
+                List<String> superTypes) {
+            this.qualifiedName = qualifiedName;
+            this.canonicalName = canonicalName;
+            this.simpleName = simpleName;
+            this.isEnum = isEnum;
+            this.superTypes = superTypes;
+        }
+
+        boolean isDocumentationEnum() {
+            return this.isEnum && this.superTypes.stream().anyMatch((name) -> name.endsWith("Documentation"));
+        }
+
+    }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs.commons;
+
+import org.jboss.forge.roaster.model.source.JavaSource;
+
+/**
+ * Receives the {@link JavaSource}s parsed by a {@link JavaSourceScanner}.
+ *
+ * @see JavaSourceScanner
+ */
+public interface JavaSourceProcessor {
+
+    /**
+     * Process a parsed top level java source.
+     * @param javaSource a parsed java source
+     */
+    void process(JavaSource<?> javaSource);
+
+    /**
+     * Prepare the processing of a parsed top level java source for a parallel scan.
+     * <p>
+     * When a {@link JavaSourceScanner} runs in parallel, this is called concurrently for
+     * different sources, and the returned action is run on the scanning thread in the
+     * order of the scanned files. Implementations should do the expensive, thread-safe
+     * part of the work here and only merge the result in the returned action, so that the
+     * merged result is the same as the one from a serial scan. The given source and the
+     * sources looked up from the {@link JavaSourceSearchHelper} are shared with the other
+     * threads, so they must not be modified, including by the Roaster accessors that add
+     * missing nodes (see {@link JavaSourceScanner}).
+     * <p>
+     * By default, the whole processing is deferred to the returned action.
+     * @param javaSource a parsed java source
+     * @return an action that merges the result
+     */
+    default Runnable prepare(JavaSource<?> javaSource) {
+        return () -> process(javaSource);
+    }
+
+    /**
+     * Called once after all java sources have been processed.
+     */
+    default void complete() {
+    }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs.commons;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.micrometer.common.util.internal.logging.InternalLogger;
+import io.micrometer.common.util.internal.logging.InternalLoggerFactory;
+import io.micrometer.docs.commons.DocsGeneratorObservationDocumentation.ParseKeyNames;
+import io.micrometer.docs.commons.utils.ParallelUtils;
+import io.micrometer.observation.ObservationRegistry;
+import org.jboss.forge.roaster.Roaster;
+import org.jboss.forge.roaster.model.source.EnumConstantSource;
+import org.jboss.forge.roaster.model.source.JavaSource;
+
+/**
+ * Scan the java files collected by {@link JavaSourceSearchHelper} and pass each parsed
+ * {@link JavaSource} to all registered {@link JavaSourceProcessor}s.
+ * <p>
+ * Only the files which may declare documentation enums or observation conventions are
+ * parsed and scanned (see {@link JavaSourceSearchHelper#getCandidatePaths()}). Other
+ * files are parsed on demand when they are referenced.
+ * <p>
+ * The candidate files are read through the {@link JavaSourceSearchHelper#getSourceCache()
+ * source cache} of the search helper, so the lookups of the processors reuse the same
+ * parsed sources, and a later scan with the same cache only parses the modified files.
+ * <p>
+ * This lets multiple documentation generators share a single directory walk and a single
+ * parse per file instead of walking and parsing the project for each generator.
+ * <p>
+ * With a parallelism greater than one, files are parsed and prepared concurrently (see
+ * {@link JavaSourceProcessor#prepare(JavaSource)}), while the results are merged in the
+ * order of the collected files. The outcome is the same as the one of a serial scan.
+ * <p>
+ * The threads of a parallel scan share the parsed sources of the source cache, including
+ * the ones the processors look up. Neither Roaster nor the JDT DOM it wraps is
+ * thread-safe, and some accessors modify the source they are called on:
+ * {@link EnumConstantSource#getJavaDoc()} and {@link EnumConstantSource#getBody()} attach
+ * a new node to a constant without javadoc or body. The processors check
+ * {@link EnumConstantSource#hasJavaDoc()} and
+ * {@link ParsingUtils#hasBody(EnumConstantSource)} before calling them. A serial scan
+ * reads each source from a single thread.
+ * <p>
+ * The parsing and the processing of each file are observed as
+ * {@link DocsGeneratorObservationDocumentation#PARSE} and
+ * {@link DocsGeneratorObservationDocumentation#RESOLVE} with the observation registry of
+ * the search helper.
+ */
+public class JavaSourceScanner {
+
+    private static final InternalLogger logger = InternalLoggerFactory.getInstance(JavaSourceScanner.class);
+
+    private final JavaSourceSearchHelper searchHelper;
+
+    private final int parallelism;
+
+    private final List<JavaSourceProcessor> processors = new ArrayList<>();
+
+    public JavaSourceScanner(JavaSourceSearchHelper searchHelper) {
+        this(searchHelper, 1);
+    }
+
+    public JavaSourceScanner(JavaSourceSearchHelper searchHelper, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive but was " + parallelism);
+        }
+        this.searchHelper = searchHelper;
+        this.parallelism = parallelism;
+    }
+
+    public JavaSourceScanner register(JavaSourceProcessor processor) {
+        this.processors.add(processor);
+        return this;
+    }
+
+    public JavaSourceSearchHelper getSearchHelper() {
+        return this.searchHelper;
+    }
+
+    /**
+     * Parse each candidate java file once and hand it to the registered processors.
+     * When all files are processed, {@link JavaSourceProcessor#complete()} is called on
+     * each processor in the registration order.
+     */
+    public void scan() {
+        if (this.processors.isEmpty()) {
+            return;
+        }
+        if (this.parallelism == 1) {
+            for (Path path : this.searchHelper.getCandidatePaths()) {
+                JavaSource<?> javaSource = parse(path);
+                DocsGeneratorObservationDocumentation.RESOLVE.observation(getObservationRegistry()).observe(() -> {
+                    for (JavaSourceProcessor processor : this.processors) {
+                        processor.process(javaSource);
+                    }
+                });
+            }
+        }
+        else {
+            ParallelUtils.forEachInOrder(this.searchHelper.getCandidatePaths(), this.parallelism, "docs-scanner",
+                    this::prepare, actions -> actions.forEach(Runnable::run));
+        }
+        for (JavaSourceProcessor processor : this.processors) {
+            processor.complete();
+        }
+    }
+
+    private List<Runnable> prepare(Path path) {
+        JavaSource<?> javaSource = parse(path);
+        List<Runnable> actions = new ArrayList<>(this.processors.size());
+        DocsGeneratorObservationDocumentation.RESOLVE.observation(getObservationRegistry()).observe(() -> {
+            for (JavaSourceProcessor processor : this.processors) {
+                actions.add(processor.prepare(javaSource));
+            }
+        });
+        return actions;
+    }
+
+    private JavaSource<?> parse(Path path) {
+        return this.searchHelper.getSourceCache().get(path, this::parseCandidate);
+    }
+
+    private JavaSource<?> parseCandidate(Path path) {
+        logger.debug("Parsing [" + path + "]");
+        return DocsGeneratorObservationDocumentation.PARSE.observation(getObservationRegistry())
+            .lowCardinalityKeyValue(ParseKeyNames.SOURCE.asString(), "scan")
+            .observe(() -> {
+                try {
+                    return Roaster.parse(JavaSource.class, path.toFile());
+                }
+                catch (IOException ex) {
+                    throw new RuntimeException("Failed to parse " + path, ex);
+                }
+            });
+    }
+
+    private ObservationRegistry getObservationRegistry() {
+        return this.searchHelper.getObservationRegistry();
+    }
+
+}
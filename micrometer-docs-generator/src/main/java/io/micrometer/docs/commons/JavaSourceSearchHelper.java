@@ -30,6 +30,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import io.micrometer.common.lang.Nullable;
@@ -37,8 +40,9 @@ import io.micrometer.common.util.internal.logging.InternalLogger;
 import io.micrometer.common.util.internal.logging.InternalLoggerFactory;
 import io.micrometer.docs.commons.utils.Assert;
 import io.micrometer.observation.GlobalObservationConvention;
+import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationConvention;
-import org.jboss.forge.roaster.Roaster;
+import io.micrometer.observation.ObservationRegistry;
 import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.Expression;
 import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.QualifiedName;
 import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.SimpleName;
@@ -55,6 +59,17 @@ import org.jboss.forge.roaster.model.source.TypeHolderSource;
 /**
  * Helper class to search any {@link JavaSource} from java files under specified
  * directory.
+ * <p>
+ * A helper is a snapshot of the index it is built from, and its own state is safe to
+ * share between threads, e.g. parallel processors or daemon requests. The class name maps
+ * are not modified after construction, so lookups read them without locking. The search
+ * results are memoized in concurrent maps, and the parsed files are kept in the
+ * thread-safe {@link JavaSourceCache}. The models of a collected enum are read by a
+ * single thread, while the other threads asking for them wait.
+ * <p>
+ * This does not extend to the returned sources. They are shared by all the callers and
+ * must not be modified, including by the Roaster accessors that add missing nodes (see
+ * {@link JavaSourceScanner}).
  *
  * @author Tadaya Tsuyukubo
  */
@@ -74,6 +89,11 @@ public class JavaSourceSearchHelper {
 
     private static final InternalLogger logger = InternalLoggerFactory.getInstance(JavaSourceSearchHelper.class);
 
+    /**
+     * Marks a remembered search without a result. Class names are never empty.
+     */
+    private static final String NOT_FOUND = "";
+
     /**
      * This map holds keys with enclosing classes and their nested classes using qualified
      * name. <pre>
@@ -91,44 +111,200 @@ public class JavaSourceSearchHelper {
      * Spec</a>) This map is useful for resolving import statement referenced classes
      * since they use canonical names.
      */
-    private final Map<String, Set<String>> qualifiedClassNames = new HashMap<>();
+    private final Map<String, Set<String>> qualifiedClassNames;
+
+    /**
+     * Package name to the class names within the package. The class names map the part
+     * of the qualified name after the package (e.g. "Foo", "Foo$Bar") to the qualified
+     * name. Top level classes without a package are not included. <pre>
+     * Example:
+     *    key: io.micrometer  value: {Foo=io.micrometer.Foo, Foo$Bar=io.micrometer.Foo$Bar}
+     * </pre>
+     */
+    private final Map<String, Map<String, String>> packageClassNames;
+
+    /**
+     * All collected java files in the visited order. Multiple classes declared in the
+     * same file share one path.
+     */
+    private final List<Path> sourcePaths;
+
+    /**
+     * Collected java files which may declare documentation enums or observation
+     * conventions, in the visited order.
+     */
+    private final List<Path> candidatePaths;
+
+    /**
+     * Parsed java files. Lookups resolve classes from the same few files repeatedly (e.g.
+     * shared {@code KeyName} enums), so keep them instead of parsing on every lookup.
+     */
+    private final JavaSourceCache sourceCache;
+
+    /**
+     * "Qualified class name#referenced class name" to the qualified name of the
+     * referenced class, or {@link #NOT_FOUND}. The same references (e.g. a shared
+     * {@code KeyName} enum) are resolved from a class for each of its constants.
+     */
+    private final Map<String, String> referencedClassNames = new ConcurrentHashMap<>();
+
+    /**
+     * Package, imports and referenced class name to the qualified name of the referenced
+     * class, or {@link #NOT_FOUND}. Files in the same package commonly share their
+     * imports, so a reference resolves once for all of them.
+     */
+    private final Map<String, String> importedClassNames = new ConcurrentHashMap<>();
+
+    /**
+     * "Qualified class name#method name" to the qualified name of the class declaring
+     * the method in the hierarchy, or {@link #NOT_FOUND}. Many conventions share base
+     * classes, so the same hierarchy is searched for the same method repeatedly. The
+     * declaring class is kept by name, so parsed classes stay bounded by the
+     * {@link #sourceCache}.
+     */
+    private final Map<String, String> methodDeclaringClassNames = new ConcurrentHashMap<>();
+
+    /**
+     * Qualified class name to the name of the convention interface it implements in its
+     * hierarchy, or {@link #NOT_FOUND}. Conventions and the classes around them share
+     * ancestors, so each class in the type graph is searched once.
+     */
+    private final Map<String, String> conventionInterfaceNames = new ConcurrentHashMap<>();
+
+    /**
+     * "Qualified enum name#reader class name" to the unmodifiable models read from the
+     * enum constants. Shared {@code KeyName} and {@code Event} enums are referenced by
+     * many documentation enums. The thread which adds the future reads the models, the
+     * other threads wait for them.
+     */
+    private final Map<String, CompletableFuture<List<?>>> enumModels = new ConcurrentHashMap<>();
+
+    private final ObservationRegistry observationRegistry;
+
+    private final JavaSourceIndex index;
+
+    private final Pattern inclusionPattern;
 
     public static JavaSourceSearchHelper create(Path projectRoot, Pattern inclusionPattern) {
-        PathCollectingFileVisitor visitor = new PathCollectingFileVisitor(inclusionPattern);
-        try {
-            long before = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-            Files.walkFileTree(projectRoot, visitor);
-            long after = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-            logger.debug("Memory usage: before{}, after={}, diff={}", before, after, after - before);
-        }
-        catch (IOException ex) {
-            throw new RuntimeException("Failed to parse java files.", ex);
-        }
-        return create(visitor.getMap());
+        return builder(projectRoot, inclusionPattern).build();
     }
 
-    static JavaSourceSearchHelper create(Map<String, JavaSourcePathInfo> map) {
-        return new JavaSourceSearchHelper(map);
+    public static JavaSourceSearchHelper create(Path projectRoot, Pattern inclusionPattern,
+            JavaSourceCache sourceCache) {
+        return builder(projectRoot, inclusionPattern).sourceCache(sourceCache).build();
     }
 
-    private JavaSourceSearchHelper(Map<String, JavaSourcePathInfo> pathInfoMap) {
-        this.pathInfoMap = pathInfoMap;
+    public static Builder builder(Path projectRoot, Pattern inclusionPattern) {
+        return new Builder(projectRoot, inclusionPattern);
+    }
+
+    /**
+     * Collect the java files under the project root the way a helper does, without
+     * indexing them. This can be used to check whether the files changed before building
+     * a helper.
+     * @param projectRoot project root directory
+     * @param inclusionPattern regex pattern the paths of the java files match
+     * @return collected java file paths in the visited order
+     * @throws IOException If the project root can't be walked.
+     * @see #getSourcePaths()
+     */
+    public static List<Path> collectSourcePaths(Path projectRoot, Pattern inclusionPattern) throws IOException {
+        PathCollectingFileVisitor visitor = new PathCollectingFileVisitor(inclusionPattern);
+        Files.walkFileTree(projectRoot, visitor);
+        return visitor.getPaths();
+    }
+
+    private JavaSourceSearchHelper(JavaSourceIndex sourceIndex, Pattern inclusionPattern, List<Path> sourcePaths,
+            JavaSourceCache sourceCache, ObservationRegistry observationRegistry) {
+        this.index = sourceIndex;
+        this.inclusionPattern = inclusionPattern;
+        this.pathInfoMap = Collections.unmodifiableMap(sourceIndex.toPathInfoMap());
+        this.sourcePaths = Collections.unmodifiableList(sourcePaths);
+        this.candidatePaths = Collections.unmodifiableList(sourceIndex.getCandidatePaths());
+        this.sourceCache = sourceCache;
+        this.observationRegistry = observationRegistry;
 
         // compose canonical name to qualified name map
-        for (Entry<String, JavaSourcePathInfo> entry : pathInfoMap.entrySet()) {
+        Map<String, Set<String>> qualifiedClassNames = new HashMap<>();
+        Map<String, Map<String, String>> packageClassNames = new HashMap<>();
+        for (Entry<String, JavaSourcePathInfo> entry : this.pathInfoMap.entrySet()) {
             String qualifiedName = entry.getKey();
             String canonicalName = entry.getValue().canonicalName;
 
-            this.qualifiedClassNames.compute(canonicalName, (key, set) -> {
+            qualifiedClassNames.compute(canonicalName, (key, set) -> {
                 if (set == null) {
                     return Collections.singleton(qualifiedName);
                 }
                 // rare case, one canonical name has multiple qualified names
                 Set<String> newSet = new HashSet<>(set);
                 newSet.add(qualifiedName);
-                return newSet;
+                return Collections.unmodifiableSet(newSet);
             });
+
+            // compose package name to class names map
+            int index = qualifiedName.lastIndexOf(".");
+            if (index != -1) {
+                String packageName = qualifiedName.substring(0, index);
+                String className = qualifiedName.substring(index + 1);
+                packageClassNames.computeIfAbsent(packageName, (key) -> new HashMap<>()).put(className, qualifiedName);
+            }
         }
+        packageClassNames.replaceAll((packageName, classNames) -> Collections.unmodifiableMap(classNames));
+        this.qualifiedClassNames = Collections.unmodifiableMap(qualifiedClassNames);
+        this.packageClassNames = Collections.unmodifiableMap(packageClassNames);
+    }
+
+    /**
+     * Return the paths of the java files that matched the inclusion pattern.
+     * @return collected java file paths
+     */
+    public List<Path> getSourcePaths() {
+        return this.sourcePaths;
+    }
+
+    /**
+     * Return the paths of the collected java files which may declare documentation enums
+     * or observation conventions. The other files are only needed to resolve references.
+     * @return candidate java file paths in the collected order
+     */
+    public List<Path> getCandidatePaths() {
+        return this.candidatePaths;
+    }
+
+    /**
+     * Return the regex pattern the paths of the collected java files match.
+     * @return inclusion pattern
+     */
+    public Pattern getInclusionPattern() {
+        return this.inclusionPattern;
+    }
+
+    /**
+     * Return the index the lookups are based on. It can be given to
+     * {@link Builder#baseIndex(JavaSourceIndex)} to build a helper for the same project
+     * again without parsing the unchanged files.
+     * @return the java source index
+     */
+    public JavaSourceIndex getIndex() {
+        return this.index;
+    }
+
+    /**
+     * Return the cache used for the parsed java files. Its hit and miss counts can be
+     * used to tune the cache size.
+     * @return the parsed java source cache
+     */
+    public JavaSourceCache getSourceCache() {
+        return this.sourceCache;
+    }
+
+    /**
+     * Return the registry to record the {@link DocsGeneratorObservationDocumentation}
+     * observations with.
+     * @return the observation registry
+     */
+    public ObservationRegistry getObservationRegistry() {
+        return this.observationRegistry;
     }
 
     /**
@@ -148,7 +324,7 @@ public class JavaSourceSearchHelper {
         if (info == null) {
             return null;
         }
-        return info.getJavaSource();
+        return info.getJavaSource(this.sourceCache);
     }
 
     /**
@@ -173,6 +349,23 @@ public class JavaSourceSearchHelper {
             return javaSource;
         }
 
+        String enclosingName = enclosingJavaSource.getQualifiedName();
+        if (!this.pathInfoMap.containsKey(enclosingName)) {
+            // not a collected class, its references can't be remembered by name
+            return resolveReferencingClass(enclosingJavaSource, className);
+        }
+        String key = enclosingName + "#" + className;
+        String resolvedName = this.referencedClassNames.get(key);
+        if (resolvedName != null) {
+            return NOT_FOUND.equals(resolvedName) ? null : search(resolvedName);
+        }
+        javaSource = resolveReferencingClass(enclosingJavaSource, className);
+        this.referencedClassNames.put(key, (javaSource != null) ? javaSource.getQualifiedName() : NOT_FOUND);
+        return javaSource;
+    }
+
+    @Nullable
+    private JavaSource<?> resolveReferencingClass(JavaSource<?> enclosingJavaSource, String className) {
         // Roaster behavior. when nested class is referenced as "Foo.Bar.class", the
         // TypeLiteral becomes "Foo.Bar" instead of the proper qualified name
         // "io.micrometer.Foo$Bar". In this case, convert the target class name to a
@@ -201,8 +394,31 @@ public class JavaSourceSearchHelper {
             }
         }
 
+        // search from import and within the same package
+        StringBuilder key = new StringBuilder();
+        String packageName = enclosingJavaSource.getPackage();
+        key.append(packageName).append('\n');
+        List<Import> imports = enclosingJavaSource.getImports();
+        for (Import anImport : imports) {
+            if (!anImport.isStatic()) { // for class reference, static import doesn't apply
+                key.append(anImport.isWildcard() ? anImport.getPackage() + ".*" : anImport.getQualifiedName())
+                    .append(',');
+            }
+        }
+        key.append('\n').append(className);
+        String importedName = this.importedClassNames.get(key.toString());
+        if (importedName != null) {
+            return NOT_FOUND.equals(importedName) ? null : search(importedName);
+        }
+        JavaSource<?> javaSource = searchImportedClass(packageName, imports, className);
+        this.importedClassNames.put(key.toString(), (javaSource != null) ? javaSource.getQualifiedName() : NOT_FOUND);
+        return javaSource;
+    }
+
+    @Nullable
+    private JavaSource<?> searchImportedClass(@Nullable String packageName, List<Import> imports, String className) {
         // search from import
-        for (Import anImport : enclosingJavaSource.getImports()) {
+        for (Import anImport : imports) {
             if (anImport.isStatic()) {
                 continue; // for class reference, static import doesn't apply
             }
@@ -221,13 +437,7 @@ public class JavaSourceSearchHelper {
         }
 
         // search within the same package
-        String packageName = enclosingJavaSource.getPackage();
-        JavaSource<?> match = searchWithinPackage(packageName, className);
-        if (match != null) {
-            return match;
-        }
-
-        return null;
+        return searchWithinPackage(packageName, className);
     }
 
     @Nullable
@@ -238,24 +448,15 @@ public class JavaSourceSearchHelper {
         }
 
         // TODO: currently only considering className as simple classname
-        // TODO: inefficient algorithm for now.
-        for (String qualifiedName : this.pathInfoMap.keySet()) {
-            if (!qualifiedName.contains(".")) {
-                continue; // exclude top level classes
-            }
-            // when target is a nested class, only look for the nested class entries
-            if (className.contains("$") && !qualifiedName.contains("$")) {
-                continue;
-            }
-
-            int index = qualifiedName.lastIndexOf(".");
-            String entryPackage = qualifiedName.substring(0, index);
-            String entryClassName = qualifiedName.substring(index + 1);
-            if (packageName.equals(entryPackage) && entryClassName.equals(className)) {
-                return search(qualifiedName);
-            }
+        Map<String, String> classNames = this.packageClassNames.get(packageName);
+        if (classNames == null) {
+            return null;
         }
-        return null;
+        String qualifiedName = classNames.get(className);
+        if (qualifiedName == null) {
+            return null;
+        }
+        return search(qualifiedName);
     }
 
     /**
@@ -340,6 +541,49 @@ public class JavaSourceSearchHelper {
         return null;
     }
 
+    /**
+     * Read the models of the enum constants with the given reader. The models are read
+     * once per collected enum and reader, so the returned list is unmodifiable and its
+     * models must not be modified.
+     * @param enumSource enum to read the constants of
+     * @param converter reader for the enum constants
+     * @param <T> model type
+     * @return models of the enum constants
+     * @see ParsingUtils#retrieveModelsFromEnum(JavaEnumSource, EntryEnumConstantReader)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> retrieveModelsFromEnum(JavaEnumSource enumSource, EntryEnumConstantReader<?> converter) {
+        String qualifiedName = enumSource.getQualifiedName();
+        if (!this.pathInfoMap.containsKey(qualifiedName)) {
+            return Collections.unmodifiableList(ParsingUtils.retrieveModelsFromEnum(enumSource, converter));
+        }
+        String key = qualifiedName + "#" + converter.getClass().getName();
+        CompletableFuture<List<?>> created = new CompletableFuture<>();
+        CompletableFuture<List<?>> models = this.enumModels.computeIfAbsent(key, k -> created);
+        if (models == created) {
+            // read outside of computeIfAbsent since the reader may look up other enums
+            try {
+                created.complete(
+                        Collections.unmodifiableList(ParsingUtils.retrieveModelsFromEnum(enumSource, converter)));
+            }
+            catch (RuntimeException ex) {
+                // let the next caller read the enum again
+                this.enumModels.remove(key, created);
+                created.completeExceptionally(ex);
+                throw ex;
+            }
+        }
+        try {
+            return (List<T>) models.join();
+        }
+        catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
     /**
      * Search the method source in the hierarchy(parents/interfaces) of the given
      * {@link JavaSource}.
@@ -349,23 +593,48 @@ public class JavaSourceSearchHelper {
      */
     @Nullable
     public MethodSource<?> searchMethodSource(JavaSource<?> javaSource, String methodName) {
-        // discovery - DFS to look for itself, parent and interfaces classes
+        JavaSource<?> declaringSource = searchMethodDeclaringSource(javaSource, methodName);
+        if (declaringSource == null) {
+            return null;
+        }
+        return ((MethodHolderSource<?>) declaringSource).getMethod(methodName);
+    }
 
+    @Nullable
+    private JavaSource<?> searchMethodDeclaringSource(JavaSource<?> javaSource, String methodName) {
         Assert.isInstanceOf(MethodHolderSource.class, javaSource);
-        MethodSource<?> methodSource = ((MethodHolderSource<?>) javaSource).getMethod(methodName);
-        if (methodSource != null) {
-            return methodSource;
+        if (((MethodHolderSource<?>) javaSource).getMethod(methodName) != null) {
+            return javaSource;
         }
 
+        String qualifiedName = javaSource.getQualifiedName();
+        if (!this.pathInfoMap.containsKey(qualifiedName)) {
+            // not a collected class, its hierarchy can't be memoized by name
+            return searchInheritedMethodDeclaringSource(javaSource, methodName);
+        }
+        String key = qualifiedName + "#" + methodName;
+        String declaringName = this.methodDeclaringClassNames.get(key);
+        if (declaringName != null) {
+            return NOT_FOUND.equals(declaringName) ? null : search(declaringName);
+        }
+        JavaSource<?> declaringSource = searchInheritedMethodDeclaringSource(javaSource, methodName);
+        this.methodDeclaringClassNames.put(key,
+                (declaringSource != null) ? declaringSource.getQualifiedName() : NOT_FOUND);
+        return declaringSource;
+    }
+
+    @Nullable
+    private JavaSource<?> searchInheritedMethodDeclaringSource(JavaSource<?> javaSource, String methodName) {
+        // discovery - DFS to look for parent and interfaces classes
         if (javaSource instanceof Extendable) {
             String parentClassName = ((Extendable<?>) javaSource).getSuperType();
             if (!Object.class.getName().equals(parentClassName)) {
                 JavaSource<?> parentSource = searchJavaSourceByRoasterTypeName(javaSource, parentClassName);
                 if (parentSource != null) {
-                    methodSource = searchMethodSource(parentSource, methodName);
-                }
-                if (methodSource != null) {
-                    return methodSource;
+                    JavaSource<?> declaringSource = searchMethodDeclaringSource(parentSource, methodName);
+                    if (declaringSource != null) {
+                        return declaringSource;
+                    }
                 }
             }
         }
@@ -376,10 +645,10 @@ public class JavaSourceSearchHelper {
             for (String interfaceName : interfaces) {
                 JavaSource<?> interfaceSource = searchJavaSourceByRoasterTypeName(javaSource, interfaceName);
                 if (interfaceSource != null) {
-                    methodSource = searchMethodSource(interfaceSource, methodName);
-                }
-                if (methodSource != null) {
-                    return methodSource;
+                    JavaSource<?> declaringSource = searchMethodDeclaringSource(interfaceSource, methodName);
+                    if (declaringSource != null) {
+                        return declaringSource;
+                    }
                 }
             }
         }
@@ -462,18 +731,53 @@ public class JavaSourceSearchHelper {
      */
     @Nullable
     public String searchObservationConventionInterfaceName(JavaSource<?> javaSource) {
-        return searchObservationConventionInterfaceName(javaSource, new HashSet<>());
+        return searchObservationConventionInterfaceName(javaSource, new HashMap<>(), 0).interfaceName;
     }
 
-    @Nullable
-    private String searchObservationConventionInterfaceName(JavaSource<?> javaSource, Set<String> visited) {
+    /**
+     * Search the convention interface name of a class and remember it, including when
+     * not found, so classes with common ancestors share the search results.
+     * <p>
+     * The {@code visited} map holds the search depth of the classes in progress. A class
+     * whose result depends on a class still in progress (e.g. a nested class extending
+     * its enclosing class) is only valid within the current search, so it keeps the
+     * lowest depth it depends on instead of being remembered.
+     */
+    private ConventionSearchResult searchObservationConventionInterfaceName(JavaSource<?> javaSource,
+            Map<String, Integer> visited, int depth) {
         String qualifiedName = javaSource.getQualifiedName();
+        String memoized = this.conventionInterfaceNames.get(qualifiedName);
+        if (memoized != null) {
+            return new ConventionSearchResult(NOT_FOUND.equals(memoized) ? null : memoized,
+                    Integer.MAX_VALUE);
+        }
+        Integer visitedDepth = visited.get(qualifiedName);
+        if (visitedDepth != null) {
+            return new ConventionSearchResult(null, visitedDepth); // already visited but not found
+        }
         logger.trace("Searching ObservationConvention on {} - start", qualifiedName);
-
-        if (visited.contains(qualifiedName)) {
-            return null; // already visited but not found
+        visited.put(qualifiedName, depth);
+
+        ConventionSearchResult result = searchObservationConventionInterfaceNameInHierarchy(javaSource, visited,
+                depth);
+        if (result.dependsOnDepth >= depth) {
+            if (this.pathInfoMap.containsKey(qualifiedName)) {
+                this.conventionInterfaceNames.put(qualifiedName,
+                        (result.interfaceName != null) ? result.interfaceName : NOT_FOUND);
+            }
+        }
+        else {
+            visited.put(qualifiedName, result.dependsOnDepth);
         }
-        visited.add(qualifiedName);
+        if (result.interfaceName == null) {
+            logger.trace("Searching ObservationConvention on {} - not found", qualifiedName);
+        }
+        return result;
+    }
+
+    private ConventionSearchResult searchObservationConventionInterfaceNameInHierarchy(JavaSource<?> javaSource,
+            Map<String, Integer> visited, int depth) {
+        int dependsOnDepth = Integer.MAX_VALUE;
 
         // search on interfaces and parent interfaces
         if (javaSource instanceof InterfaceCapable) {
@@ -481,14 +785,16 @@ public class JavaSourceSearchHelper {
             for (String interfaceName : interfaces) {
                 if (interfaceName.contains(ObservationConvention.class.getCanonicalName())
                         || interfaceName.contains(GlobalObservationConvention.class.getCanonicalName())) {
-                    return interfaceName;
+                    return new ConventionSearchResult(interfaceName, dependsOnDepth);
                 }
 
                 JavaSource<?> interfaceSource = searchJavaSourceByRoasterTypeName(javaSource, interfaceName);
                 if (interfaceSource != null) {
-                    String result = searchObservationConventionInterfaceName(interfaceSource, visited);
-                    if (result != null) {
-                        return result;
+                    ConventionSearchResult result = searchObservationConventionInterfaceName(interfaceSource,
+                            visited, depth + 1);
+                    dependsOnDepth = Math.min(dependsOnDepth, result.dependsOnDepth);
+                    if (result.interfaceName != null) {
+                        return new ConventionSearchResult(result.interfaceName, dependsOnDepth);
                     }
                 }
             }
@@ -497,9 +803,10 @@ public class JavaSourceSearchHelper {
         // search on nested classes
         if (javaSource instanceof TypeHolderSource) {
             for (JavaSource<?> nested : ((TypeHolderSource<?>) javaSource).getNestedTypes()) {
-                String result = searchObservationConventionInterfaceName(nested, visited);
-                if (result != null) {
-                    return result;
+                ConventionSearchResult result = searchObservationConventionInterfaceName(nested, visited, depth + 1);
+                dependsOnDepth = Math.min(dependsOnDepth, result.dependsOnDepth);
+                if (result.interfaceName != null) {
+                    return new ConventionSearchResult(result.interfaceName, dependsOnDepth);
                 }
             }
         }
@@ -510,23 +817,188 @@ public class JavaSourceSearchHelper {
             if (!Object.class.getName().equals(parentClassName)) {
                 JavaSource<?> parentSource = searchJavaSourceByRoasterTypeName(javaSource, parentClassName);
                 if (parentSource != null) {
-                    String result = searchObservationConventionInterfaceName(parentSource, visited);
-                    if (result != null) {
-                        return result;
+                    ConventionSearchResult result = searchObservationConventionInterfaceName(parentSource, visited,
+                            depth + 1);
+                    dependsOnDepth = Math.min(dependsOnDepth, result.dependsOnDepth);
+                    if (result.interfaceName != null) {
+                        return new ConventionSearchResult(result.interfaceName, dependsOnDepth);
                     }
                 }
             }
         }
 
-        logger.trace("Searching ObservationConvention on {} - not found", qualifiedName);
-        return null; // not found
+        return new ConventionSearchResult(null, dependsOnDepth); // not found
+    }
+
+    private static final class ConventionSearchResult {
+
+        @Nullable
+        private final String interfaceName;
+
+        private final int dependsOnDepth;
+
+        private ConventionSearchResult(@Nullable String interfaceName, int dependsOnDepth) {
+            this.interfaceName = interfaceName;
+            this.dependsOnDepth = dependsOnDepth;
+        }
+
+    }
+
+    /**
+     * Builder for {@link JavaSourceSearchHelper}.
+     */
+    public static class Builder {
+
+        static final String INDEX_FILE_NAME = "java-source-index.txt";
+
+        private final Path projectRoot;
+
+        private final Pattern inclusionPattern;
+
+        @Nullable
+        private JavaSourceCache sourceCache;
+
+        private int parallelism = 1;
+
+        @Nullable
+        private Path cacheDir;
+
+        private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+
+        @Nullable
+        private JavaSourceIndex baseIndex;
+
+        Builder(Path projectRoot, Pattern inclusionPattern) {
+            this.projectRoot = projectRoot;
+            this.inclusionPattern = inclusionPattern;
+        }
+
+        /**
+         * Set the cache for the parsed java files used by lookups. A new
+         * {@link JavaSourceCache} with the default size is used if not specified.
+         * @param sourceCache a source cache
+         * @return this builder
+         */
+        public Builder sourceCache(JavaSourceCache sourceCache) {
+            this.sourceCache = sourceCache;
+            return this;
+        }
+
+        /**
+         * Set the number of threads used to parse the java files while building the
+         * index. The default {@code 1} parses them on the calling thread. The resulting
+         * index does not depend on this value.
+         * @param parallelism number of parsing threads
+         * @return this builder
+         */
+        public Builder parallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("parallelism must be positive but was " + parallelism);
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Set the directory to keep the {@link JavaSourceIndex} between runs. When set,
+         * only the java files added or modified since the previous run are parsed to
+         * build the index.
+         * @param cacheDir cache directory or {@code null} to not persist the index
+         * @return this builder
+         */
+        public Builder cacheDir(@Nullable Path cacheDir) {
+            this.cacheDir = cacheDir;
+            return this;
+        }
+
+        /**
+         * Set the registry to record the {@link DocsGeneratorObservationDocumentation}
+         * observations of the walk, the parsing and the document generation. The default
+         * {@link ObservationRegistry#NOOP} records nothing.
+         * @param observationRegistry observation registry
+         * @return this builder
+         */
+        public Builder observationRegistry(ObservationRegistry observationRegistry) {
+            this.observationRegistry = observationRegistry;
+            return this;
+        }
+
+        /**
+         * Set the index of a previous build to update instead of the one kept in the
+         * {@link #cacheDir(Path) cache directory}. A long-lived process can keep the
+         * index in memory between builds this way. The index is ignored if it was
+         * created for another project root.
+         * @param baseIndex index to update or {@code null}
+         * @return this builder
+         */
+        public Builder baseIndex(@Nullable JavaSourceIndex baseIndex) {
+            this.baseIndex = baseIndex;
+            return this;
+        }
+
+        public JavaSourceSearchHelper build() {
+            PathCollectingFileVisitor visitor = new PathCollectingFileVisitor(this.inclusionPattern);
+            JavaSourceIndex index;
+            try {
+                long before = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+                walk(visitor);
+                index = index(visitor.getPaths());
+                long after = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+                logger.debug("Memory usage: before{}, after={}, diff={}", before, after, after - before);
+            }
+            catch (IOException ex) {
+                throw new RuntimeException("Failed to parse java files.", ex);
+            }
+            JavaSourceCache cache = (this.sourceCache != null) ? this.sourceCache : new JavaSourceCache();
+            JavaSourceSearchHelper helper = new JavaSourceSearchHelper(index, this.inclusionPattern, visitor.getPaths(),
+                    cache, this.observationRegistry);
+            logger.debug("Found [" + helper.getCandidatePaths().size() + "] candidate files out of [" + index.size()
+                    + "]");
+            return helper;
+        }
+
+        private void walk(PathCollectingFileVisitor visitor) throws IOException {
+            Observation observation = DocsGeneratorObservationDocumentation.WALK
+                .observation(this.observationRegistry)
+                .start();
+            try {
+                Files.walkFileTree(this.projectRoot, visitor);
+            }
+            catch (IOException ex) {
+                observation.error(ex);
+                throw ex;
+            }
+            finally {
+                observation.stop();
+            }
+        }
+
+        private JavaSourceIndex index(List<Path> paths) {
+            Path indexFile = (this.cacheDir != null) ? this.cacheDir.resolve(INDEX_FILE_NAME) : null;
+            JavaSourceIndex index = baseIndex(indexFile).update(paths, this.parallelism, this.observationRegistry);
+            if (indexFile != null) {
+                index.save(indexFile);
+            }
+            return index;
+        }
+
+        private JavaSourceIndex baseIndex(@Nullable Path indexFile) {
+            if (this.baseIndex != null && this.baseIndex.isFor(this.projectRoot)) {
+                return this.baseIndex;
+            }
+            if (indexFile != null) {
+                return JavaSourceIndex.load(indexFile, this.projectRoot);
+            }
+            return JavaSourceIndex.empty(this.projectRoot);
+        }
+
     }
 
     static class PathCollectingFileVisitor extends SimpleFileVisitor<Path> {
 
         private final Pattern pattern;
 
-        private final Map<String, JavaSourcePathInfo> map = new HashMap<>();
+        private final List<Path> paths = new ArrayList<>();
 
         PathCollectingFileVisitor(Pattern pattern) {
             this.pattern = pattern;
@@ -543,38 +1015,12 @@ public class JavaSourceSearchHelper {
             else if (path.toString().endsWith("package-info.java") || path.toString().endsWith("module-info.java")) {
                 return FileVisitResult.CONTINUE;
             }
-
-            JavaSource<?> javaSource = Roaster.parse(JavaSource.class, path.toFile());
-
-            // Because of the equality in JavaClassImpl, nested classes under the same
-            // enclosing class are considered equal. Therefore, here needs to use List
-            // to keep each nested class as an independent entry.
-            List<JavaSource<?>> sources = new ArrayList<>();
-            populateJavaSource(javaSource, sources);
-
-            // To reduce memory usage, for now just putting path instead of JavaSource.
-            // May consider using WeakHashMap with proper key.
-            for (JavaSource<?> source : sources) {
-                String canonicalName = source.getCanonicalName();
-                String qualifiedName = source.getQualifiedName();
-                String simpleName = source.getName();
-                this.map.put(qualifiedName, new JavaSourcePathInfo(path, canonicalName, qualifiedName, simpleName));
-            }
+            this.paths.add(path);
             return FileVisitResult.CONTINUE;
         }
 
-        public Map<String, JavaSourcePathInfo> getMap() {
-            return this.map;
-        }
-
-        // recursively populate nested classes
-        private void populateJavaSource(JavaSource<?> javaSource, List<JavaSource<?>> list) {
-            list.add(javaSource);
-            if (javaSource instanceof TypeHolderSource) {
-                for (JavaSource<?> nested : ((TypeHolderSource<?>) javaSource).getNestedTypes()) {
-                    populateJavaSource(nested, list);
-                }
-            }
+        public List<Path> getPaths() {
+            return this.paths;
         }
 
     }
@@ -599,14 +1045,8 @@ public class JavaSourceSearchHelper {
             this.simpleName = simpleName;
         }
 
-        JavaSource<?> getJavaSource() {
-            JavaSource<?> javaSource;
-            try {
-                javaSource = Roaster.parse(JavaSource.class, this.path.toFile());
-            }
-            catch (IOException ex) {
-                throw new RuntimeException("Failed to parse " + this.path, ex);
-            }
+        JavaSource<?> getJavaSource(JavaSourceCache sourceCache) {
+            JavaSource<?> javaSource = sourceCache.get(this.path);
             JavaSource<?> result = findJavaSource(javaSource, this.qualifiedName);
             if (result == null) {
                 throw new RuntimeException(String.format("Could not find %s in %s", this.qualifiedName, this.path));
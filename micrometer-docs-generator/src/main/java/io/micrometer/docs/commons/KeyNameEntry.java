@@ -45,6 +45,12 @@ public class KeyNameEntry implements Comparable<KeyNameEntry> {
         return this.name.compareTo(entry.name);
     }
 
+    @Override
+    public String toString() {
+        return "KeyNameEntry{name='" + this.name + "', description='" + this.description + "', required="
+                + this.required + "}";
+    }
+
     public String getName() {
         return this.name;
     }
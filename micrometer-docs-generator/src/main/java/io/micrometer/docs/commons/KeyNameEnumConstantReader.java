@@ -17,7 +17,6 @@
 package io.micrometer.docs.commons;
 
 import io.micrometer.common.docs.KeyName;
-import io.micrometer.docs.commons.utils.AsciidocUtils;
 import io.micrometer.docs.commons.utils.Assert;
 import org.jboss.forge.roaster.model.source.EnumConstantSource;
 
@@ -37,7 +36,7 @@ public class KeyNameEnumConstantReader implements EntryEnumConstantReader<KeyNam
 
     @Override
     public KeyNameEntry apply(EnumConstantSource enumConstantSource) {
-        String description = AsciidocUtils.javadocToAsciidoc(enumConstantSource.getJavaDoc());
+        String description = ParsingUtils.enumConstantDescription(enumConstantSource);
         String value = ParsingUtils.enumMethodValue(enumConstantSource, "asString");
         String isRequired = ParsingUtils.enumMethodValue(enumConstantSource, "isRequired");
 
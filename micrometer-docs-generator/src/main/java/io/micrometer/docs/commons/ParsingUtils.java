@@ -27,8 +27,10 @@ import io.micrometer.common.docs.KeyName;
 import io.micrometer.common.lang.Nullable;
 import io.micrometer.common.util.internal.logging.InternalLogger;
 import io.micrometer.common.util.internal.logging.InternalLoggerFactory;
+import io.micrometer.docs.commons.utils.AsciidocUtils;
 import io.micrometer.docs.commons.utils.Assert;
 import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.BooleanLiteral;
+import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.EnumConstantDeclaration;
 import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.Expression;
 import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.MethodInvocation;
@@ -122,9 +124,49 @@ public class ParsingUtils {
         return Collections.singleton(methodInvocation.getExpression().toString());
     }
 
+    /**
+     * Convert the javadoc of the enum constant to asciidoc. A constant without javadoc
+     * has an empty description, since {@link EnumConstantSource#getJavaDoc()} would
+     * attach a new javadoc to it.
+     * @param enumConstant an enum constant
+     * @return asciidoc description
+     */
+    public static String enumConstantDescription(EnumConstantSource enumConstant) {
+        if (!enumConstant.hasJavaDoc()) {
+            return "";
+        }
+        return AsciidocUtils.javadocToAsciidoc(enumConstant.getJavaDoc());
+    }
+
+    /**
+     * Whether the enum constant has a body. {@link EnumConstantSource#getBody()} adds an
+     * empty body to a constant without one, so check this before reading it.
+     * @param enumConstant an enum constant
+     * @return {@code true} if the constant has a body
+     */
+    public static boolean hasBody(EnumConstantSource enumConstant) {
+        Object internal = enumConstant.getInternal();
+        Assert.isInstanceOf(EnumConstantDeclaration.class, internal);
+        return ((EnumConstantDeclaration) internal).getAnonymousClassDeclaration() != null;
+    }
+
+    /**
+     * Retrieve a method of the enum constant body.
+     * @param enumConstant an enum constant
+     * @param methodName method name
+     * @return the method or {@code null} if the constant has no body or no such method
+     */
+    @Nullable
+    public static MethodSource<?> enumConstantMethod(EnumConstantSource enumConstant, String methodName) {
+        if (!hasBody(enumConstant)) {
+            return null;
+        }
+        return enumConstant.getBody().getMethod(methodName);
+    }
+
     @Nullable
     static String enumMethodValue(EnumConstantSource enumConstant, String methodName) {
-        MethodSource<?> methodSource = enumConstant.getBody().getMethod(methodName);
+        MethodSource<?> methodSource = enumConstantMethod(enumConstant, methodName);
         if (methodSource == null) {
             logger.debug("Can't find the member with method name [" + methodName + "] on " + enumConstant.getName());
             return null;
@@ -38,14 +38,27 @@ public class ADocHelpers {
      * value multiple times, it appends a suffix to the anchor value to make it unique.
      * The suffix takes the form of "-1", "-2", and so on, incrementing with each
      * occurrence.
+     * <p>
+     * The occurrences are counted in the {@link #ANCHORS} data of the template context
+     * when present, so a shared engine starts over for each render (see
+     * {@link TemplateRegistry#apply}). Otherwise, they are counted by the helper instance.
      */
     public static class AnchorHelper implements Helper<String> {
 
+        /**
+         * Name of the template context data to count the occurrences in.
+         */
+        public static final String ANCHORS = AnchorHelper.class.getName() + ".anchors";
+
         private final Map<String, Integer> map = new HashMap<>();
 
         @Override
         public Object apply(String context, Options options) throws IOException {
-            int suffixNumber = this.map.compute(context, (key, number) -> (number == null) ? 0 : number + 1);
+            Map<String, Integer> anchors = options.data(ANCHORS);
+            if (anchors == null) {
+                anchors = this.map;
+            }
+            int suffixNumber = anchors.compute(context, (key, number) -> (number == null) ? 0 : number + 1);
             // returns foo, foo-1, foo-2, ...
             return suffixNumber == 0 ? context : context + "-" + suffixNumber;
         }
@@ -16,8 +16,6 @@
 package io.micrometer.docs.commons.templates;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.util.Scanner;
 
 import com.github.jknack.handlebars.Handlebars;
 import com.github.jknack.handlebars.Template;
@@ -60,18 +58,52 @@ public class HandlebarsUtils {
      * @throws IOException If the template's source can't be resolved.
      */
     public static Template createTemplate(String templateLocation) throws IOException {
-        Handlebars handlebars = createHandlebars();
-        String content = handlebars.getLoader().sourceAt(templateLocation).content(StandardCharsets.UTF_8);
+        return createHandlebars().compileInline(readTemplate(templateLocation));
+    }
+
+    /**
+     * Read the content of a template with the line delimiter of the running OS.
+     * @param templateLocation template location (either in classpath or file system)
+     * @return the template content
+     * @throws IOException If the template's source can't be resolved.
+     * @see #createTemplate(String)
+     */
+    public static String readTemplate(String templateLocation) throws IOException {
+        return TemplateRegistry.getDefault().read(templateLocation);
+    }
 
-        // replace the line delimiter in template file to the running OS specific one
-        StringBuilder sb = new StringBuilder();
-        try (Scanner scanner = new Scanner(content)) {
-            while (scanner.hasNext()) {
-                sb.append(scanner.nextLine());
-                sb.append(System.lineSeparator());
+    /**
+     * Replace the line delimiters with the one of the running OS. Like reading the lines
+     * with a {@link java.util.Scanner} while it has a next token, the trailing lines
+     * without any token are dropped and every other line is terminated.
+     * @param content template content
+     * @return the content with the line delimiter of the running OS
+     */
+    static String toSystemLineSeparators(String content) {
+        int end = content.length();
+        while (end > 0 && Character.isWhitespace(content.charAt(end - 1))) {
+            end--;
+        }
+        StringBuilder sb = new StringBuilder(content.length() + 64);
+        int lineStart = 0;
+        while (lineStart < end) {
+            int lineEnd = lineStart;
+            while (lineEnd < content.length() && !isLineSeparator(content.charAt(lineEnd))) {
+                lineEnd++;
             }
+            sb.append(content, lineStart, lineEnd).append(System.lineSeparator());
+            if (lineEnd < content.length() - 1 && content.charAt(lineEnd) == '\r'
+                    && content.charAt(lineEnd + 1) == '\n') {
+                lineEnd++;
+            }
+            lineStart = lineEnd + 1;
         }
-        return handlebars.compileInline(sb.toString());
+        return sb.toString();
+    }
+
+    // the line separators of Scanner.nextLine()
+    private static boolean isLineSeparator(char c) {
+        return c == '\n' || c == '\r' || c == '\u2028' || c == '\u2029' || c == '\u0085';
     }
 
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs.commons.templates;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.github.jknack.handlebars.Context;
+import com.github.jknack.handlebars.Handlebars;
+import com.github.jknack.handlebars.Template;
+
+/**
+ * Compiled templates of a shared {@link Handlebars} engine.
+ * <p>
+ * A template is compiled once per location and recompiled only when the content read
+ * from the location changes, so rendering many outputs in the same JVM doesn't configure
+ * an engine and compile the templates again for each of them. The engine and the
+ * compiled templates are thread-safe.
+ */
+public final class TemplateRegistry {
+
+    private static final TemplateRegistry DEFAULT = new TemplateRegistry();
+
+    private final Handlebars handlebars = HandlebarsUtils.createHandlebars();
+
+    private final Map<String, CompiledTemplate> templates = new ConcurrentHashMap<>();
+
+    /**
+     * Return the registry shared in the JVM.
+     * @return the default registry
+     */
+    public static TemplateRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Read the content of a template with the line delimiter of the running OS.
+     * @param templateLocation template location (either in classpath or file system)
+     * @return the template content
+     * @throws IOException If the template's source can't be resolved.
+     */
+    public String read(String templateLocation) throws IOException {
+        String content = this.handlebars.getLoader().sourceAt(templateLocation).content(StandardCharsets.UTF_8);
+        return HandlebarsUtils.toSystemLineSeparators(content);
+    }
+
+    /**
+     * Return the compiled template for the content read from the given location.
+     * @param templateLocation template location the content was read from
+     * @param content template content
+     * @return the compiled template
+     * @throws IOException If the template can't be compiled.
+     * @see #read(String)
+     */
+    public Template compile(String templateLocation, String content) throws IOException {
+        CompiledTemplate compiled = this.templates.get(templateLocation);
+        if (compiled == null || !compiled.content.equals(content)) {
+            compiled = new CompiledTemplate(content, this.handlebars.compileInline(content));
+            this.templates.put(templateLocation, compiled);
+        }
+        return compiled.template;
+    }
+
+    /**
+     * Apply a template with the state of the helpers scoped to this call, e.g. the
+     * anchors generated by {@link ADocHelpers.AnchorHelper}.
+     * @param template compiled template
+     * @param model template model
+     * @return the rendered template
+     * @throws IOException If the template can't be applied.
+     */
+    public String apply(Template template, Object model) throws IOException {
+        StringWriter writer = new StringWriter();
+        apply(template, model, writer);
+        return writer.toString();
+    }
+
+    /**
+     * Apply a template to a writer with the state of the helpers scoped to this call.
+     * @param template compiled template
+     * @param model template model
+     * @param writer writer to render the template to
+     * @throws IOException If the template can't be applied.
+     * @see #apply(Template, Object)
+     */
+    public void apply(Template template, Object model, Writer writer) throws IOException {
+        Context context = Context.newBuilder(model).build();
+        try {
+            context.data(ADocHelpers.AnchorHelper.ANCHORS, new HashMap<String, Integer>());
+            template.apply(context, writer);
+        }
+        finally {
+            context.destroy();
+        }
+    }
+
+    private static final class CompiledTemplate {
+
+        private final String content;
+
+        private final Template template;
+
+        private CompiledTemplate(String content, Template template) {
+            this.content = content;
+            this.template = template;
+        }
+
+    }
+
+}
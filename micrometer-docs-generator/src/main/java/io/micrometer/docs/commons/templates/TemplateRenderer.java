@@ -0,0 +1,284 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs.commons.templates;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.github.jknack.handlebars.Template;
+import io.micrometer.common.lang.Nullable;
+import io.micrometer.common.util.internal.logging.InternalLogger;
+import io.micrometer.common.util.internal.logging.InternalLoggerFactory;
+import io.micrometer.docs.commons.DocsGeneratorObservationDocumentation;
+import io.micrometer.docs.commons.DocsGeneratorObservationDocumentation.DocumentKeyNames;
+import io.micrometer.docs.commons.DocsGeneratorObservationDocumentation.RenderKeyNames;
+import io.micrometer.docs.commons.utils.DigestUtils;
+import io.micrometer.docs.commons.utils.FileUtils;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Render a Handlebars template to an output file.
+ * <p>
+ * When a cache directory is given, a fingerprint of the template content and the model
+ * is kept there. Rendering is skipped when the fingerprint is unchanged and the output
+ * file still exists. Regardless of the cache directory, an output file with the same
+ * content is not rewritten, so its timestamp is kept for downstream incremental builds.
+ * <p>
+ * The template is rendered in UTF-8 to a temporary file next to the output, which then
+ * replaces the output atomically where supported. Readers never see a partially written
+ * output, and the rendered document is not held in memory.
+ * <p>
+ * The fingerprint of the model reads the values the way Handlebars resolves them, i.e.
+ * map entries, list elements and the {@code getX()} and {@code isX()} methods of the
+ * other objects, so every value a template can render is part of it.
+ * <p>
+ * Templates are compiled with the {@link TemplateRegistry#getDefault() default registry}.
+ * <p>
+ * Each call to {@link #render(Map)} is observed as
+ * {@link DocsGeneratorObservationDocumentation#RENDER}.
+ */
+public class TemplateRenderer {
+
+    private static final InternalLogger logger = InternalLoggerFactory.getInstance(TemplateRenderer.class);
+
+    private static final Map<Class<?>, List<Method>> GETTERS = new ConcurrentHashMap<>();
+
+    private final String templateLocation;
+
+    private final Path output;
+
+    @Nullable
+    private final Path cacheDir;
+
+    private final ObservationRegistry observationRegistry;
+
+    public TemplateRenderer(String templateLocation, Path output, @Nullable Path cacheDir) {
+        this(templateLocation, output, cacheDir, ObservationRegistry.NOOP);
+    }
+
+    public TemplateRenderer(String templateLocation, Path output, @Nullable Path cacheDir,
+            ObservationRegistry observationRegistry) {
+        this.templateLocation = templateLocation;
+        this.output = output;
+        this.cacheDir = cacheDir;
+        this.observationRegistry = observationRegistry;
+    }
+
+    /**
+     * Render the template with the given model unless the output is up-to-date.
+     * @param model template model
+     * @return {@code true} if the output file was written
+     * @throws IOException If the template or the output can't be read or written.
+     */
+    public boolean render(Map<String, Object> model) throws IOException {
+        Observation observation = DocsGeneratorObservationDocumentation.RENDER.observation(this.observationRegistry)
+            .lowCardinalityKeyValue(DocumentKeyNames.DOCUMENT.asString(), this.output.getFileName().toString())
+            .start();
+        try {
+            Outcome outcome = doRender(model);
+            observation.lowCardinalityKeyValue(RenderKeyNames.OUTCOME.asString(),
+                    outcome.name().toLowerCase(Locale.ROOT));
+            return outcome == Outcome.WRITTEN;
+        }
+        catch (IOException | RuntimeException ex) {
+            observation.error(ex);
+            throw ex;
+        }
+        finally {
+            observation.stop();
+        }
+    }
+
+    private Outcome doRender(Map<String, Object> model) throws IOException {
+        TemplateRegistry templateRegistry = TemplateRegistry.getDefault();
+        String templateContent = templateRegistry.read(this.templateLocation);
+
+        Path fingerprintFile = null;
+        String fingerprint = null;
+        if (this.cacheDir != null) {
+            String outputKey = DigestUtils.sha256Hex(absolute(this.output));
+            fingerprintFile = this.cacheDir.resolve("fingerprints").resolve(outputKey + ".txt");
+            fingerprint = fingerprint(templateContent, model);
+            if (Files.isRegularFile(this.output) && Files.isRegularFile(fingerprintFile)
+                    && fingerprint.equals(new String(Files.readAllBytes(fingerprintFile), StandardCharsets.UTF_8))) {
+                logger.info("Skipping [" + this.output + "] since the template and the model are unchanged");
+                return Outcome.SKIPPED;
+            }
+        }
+
+        Template template = templateRegistry.compile(this.templateLocation, templateContent);
+        boolean written = renderIfChanged(templateRegistry, template, model);
+
+        if (fingerprintFile != null) {
+            Files.createDirectories(fingerprintFile.getParent());
+            Files.write(fingerprintFile, fingerprint.getBytes(StandardCharsets.UTF_8));
+        }
+        return written ? Outcome.WRITTEN : Outcome.UNCHANGED;
+    }
+
+    // stream to a hidden file next to the output, then move it into place
+    private boolean renderIfChanged(TemplateRegistry templateRegistry, Template template, Map<String, Object> model)
+            throws IOException {
+        Path tempFile = this.output.resolveSibling("." + this.output.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE_NEW)) {
+                templateRegistry.apply(template, model, writer);
+            }
+            if (Files.isRegularFile(this.output) && FileUtils.contentEquals(tempFile, this.output)) {
+                logger.debug("Not rewriting [" + this.output + "] since its content is unchanged");
+                return false;
+            }
+            FileUtils.moveAtomically(tempFile, this.output);
+            return true;
+        }
+        finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private static String fingerprint(String templateContent, Map<String, Object> model) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(TemplateRenderer.class.getPackage().getImplementationVersion()).append('\n');
+        sb.append(templateContent.length()).append('\n').append(templateContent).append('\n');
+        appendValue(sb, model, Collections.newSetFromMap(new IdentityHashMap<>()));
+        return DigestUtils.sha256Hex(sb.toString());
+    }
+
+    private static void appendValue(StringBuilder sb, @Nullable Object value, Set<Object> path) {
+        if (value == null) {
+            sb.append("null");
+        }
+        else if (value instanceof CharSequence || value instanceof Number || value instanceof Boolean
+                || value instanceof Character || value instanceof Enum) {
+            String string = value.toString();
+            sb.append(string.length()).append(':').append(string);
+        }
+        else if (!path.add(value)) {
+            sb.append("cycle");
+        }
+        else {
+            if (value instanceof Map) {
+                // sort the keys to keep the fingerprint independent of the map implementation
+                Map<String, Object> entries = new TreeMap<>();
+                ((Map<?, ?>) value).forEach((key, entry) -> entries.put(String.valueOf(key), entry));
+                sb.append('{');
+                for (Map.Entry<String, Object> entry : entries.entrySet()) {
+                    sb.append(entry.getKey().length()).append(':').append(entry.getKey()).append('=');
+                    appendValue(sb, entry.getValue(), path);
+                    sb.append(',');
+                }
+                sb.append('}');
+            }
+            else if (value instanceof Iterable) {
+                sb.append('[');
+                for (Object element : (Iterable<?>) value) {
+                    appendValue(sb, element, path);
+                    sb.append(',');
+                }
+                sb.append(']');
+            }
+            else if (value.getClass().isArray()) {
+                sb.append('[');
+                for (int i = 0; i < Array.getLength(value); i++) {
+                    appendValue(sb, Array.get(value, i), path);
+                    sb.append(',');
+                }
+                sb.append(']');
+            }
+            else {
+                appendProperties(sb, value, path);
+            }
+            path.remove(value);
+        }
+    }
+
+    // the same properties as Handlebars' JavaBeanValueResolver
+    private static void appendProperties(StringBuilder sb, Object value, Set<Object> path) {
+        sb.append(value.getClass().getName()).append('{');
+        for (Method getter : GETTERS.computeIfAbsent(value.getClass(), TemplateRenderer::findGetters)) {
+            sb.append(getter.getName()).append('=');
+            Object property;
+            try {
+                property = getter.invoke(value);
+            }
+            catch (ReflectiveOperationException | RuntimeException ex) {
+                // a template reading this property fails the same way
+                Throwable cause = (ex instanceof InvocationTargetException && ex.getCause() != null) ? ex.getCause()
+                        : ex;
+                sb.append("error:").append(cause.getClass().getName()).append(',');
+                continue;
+            }
+            appendValue(sb, property, path);
+            sb.append(',');
+        }
+        sb.append('}');
+    }
+
+    private static List<Method> findGetters(Class<?> type) {
+        List<Method> getters = new ArrayList<>();
+        for (Method method : type.getMethods()) {
+            String name = method.getName();
+            boolean isGetter = (name.startsWith("get") && name.length() > 3)
+                    || (name.startsWith("is") && name.length() > 2);
+            if (!isGetter || method.getParameterCount() != 0 || method.getReturnType() == void.class
+                    || Modifier.isStatic(method.getModifiers()) || method.getDeclaringClass() == Object.class) {
+                continue;
+            }
+            try {
+                method.setAccessible(true); // public methods of non-public classes
+            }
+            catch (RuntimeException ex) {
+                // keep the default access check
+            }
+            getters.add(method);
+        }
+        getters.sort(Comparator.comparing(Method::getName));
+        return getters;
+    }
+
+    private static String absolute(Path path) {
+        return path.toAbsolutePath().normalize().toString();
+    }
+
+    private enum Outcome {
+
+        WRITTEN, UNCHANGED, SKIPPED
+
+    }
+
+}
@@ -16,7 +16,6 @@
 package io.micrometer.docs.commons.utils;
 
 import java.util.List;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -30,6 +29,17 @@ import org.jboss.forge.roaster.model.source.JavaDocSource;
 /**
  * Utilities to parse javadoc fragments in various form (String, modelling objects) to
  * asciidoc strings.
+ * <p>
+ * The conversion scans the text once per pass instead of using regular expressions. It
+ * produces the same output as the following replacements, applied in order:
+ * <ul>
+ * <li>HTML to asciidoc: {@code <p/?>}, {@code <br/?>}, {@code <strong>},
+ * {@code </strong>\h+}, {@code </?b>}, {@code </?i>}, {@code <ul>}, {@code <ol>},
+ * {@code </[uo]l>} and {@code <li>}, then stripping the other tags with
+ * {@code <[^<>]*>}</li>
+ * <li>for each line of the javadoc: {@code \h\h+} with a single space, then removing
+ * {@code \h+$}</li>
+ * </ul>
  */
 public class AsciidocUtils {
 
@@ -41,24 +51,115 @@ public class AsciidocUtils {
 
     private static final String PARAGRAPH_BREAK = NEWLINE + NEWLINE;
 
-    private static final Pattern NEWLINE_PATTERN = Pattern.compile("\\R");
-
     public static final String simpleHtmlToAsciidoc(String line, boolean assumeLiOrdered) {
-        // @formatter:off
-        String asciidoc = line
-                .replaceAll("<p/?>", PARAGRAPH_BREAK)
-                .replaceAll("<br/?>", LINE_BREAK)
-                .replaceAll("<strong>", PARAGRAPH_BREAK + "IMPORTANT: ")
-                .replaceAll("</strong>\\h+", PARAGRAPH_BREAK)
-                .replaceAll("</?b>", "*")
-                .replaceAll("</?i>", "_")
-                .replaceAll("<ul>", NEWLINE)
-                .replaceAll("<ol>", NEWLINE)
-                .replaceAll("</[uo]l>", NEWLINE)
-                .replaceAll("<li>", NEWLINE + (assumeLiOrdered ? " 1. " : " - "));
-        // @formatter:on
+        StringBuilder asciidoc = new StringBuilder(line.length() + 16);
+        appendSimpleHtmlAsAsciidoc(asciidoc, line, assumeLiOrdered);
+        return asciidoc.toString();
+    }
+
+    private static void appendSimpleHtmlAsAsciidoc(StringBuilder asciidoc, String line, boolean assumeLiOrdered) {
+        int start = asciidoc.length();
+        int length = line.length();
+        int i = 0;
+        while (i < length) {
+            char c = line.charAt(i);
+            if (c != '<') {
+                asciidoc.append(c);
+                i++;
+                continue;
+            }
+            int end = line.indexOf('>', i);
+            if (end == -1) {
+                asciidoc.append(line, i, length);
+                break;
+            }
+            // the longest known tag is "</strong>"
+            String tag = (end - i <= 8) ? line.substring(i + 1, end) : "";
+            int next = end + 1;
+            switch (tag) {
+                case "p":
+                case "p/":
+                    asciidoc.append(PARAGRAPH_BREAK);
+                    break;
+                case "br":
+                case "br/":
+                    asciidoc.append(LINE_BREAK);
+                    break;
+                case "strong":
+                    asciidoc.append(PARAGRAPH_BREAK).append("IMPORTANT: ");
+                    break;
+                case "/strong":
+                    next = appendClosingStrong(asciidoc, line, next);
+                    break;
+                case "b":
+                case "/b":
+                    asciidoc.append('*');
+                    break;
+                case "i":
+                case "/i":
+                    asciidoc.append('_');
+                    break;
+                case "ul":
+                case "ol":
+                case "/ul":
+                case "/ol":
+                    asciidoc.append(NEWLINE);
+                    break;
+                case "li":
+                    asciidoc.append(NEWLINE).append(assumeLiOrdered ? " 1. " : " - ");
+                    break;
+                default:
+                    // only the first character, the tag may contain another one
+                    asciidoc.append(c);
+                    next = i + 1;
+            }
+            i = next;
+        }
         // strip all other tags (closing tags, unknown tags)
-        return asciidoc.replaceAll("<[^<>]*>", "");
+        stripTags(asciidoc, start);
+    }
+
+    // "</strong>" followed by horizontal whitespaces is a paragraph break. A "<br>" starts
+    // with a space once replaced, so the whitespaces include that space.
+    private static int appendClosingStrong(StringBuilder asciidoc, String line, int index) {
+        int end = index;
+        while (end < line.length() && isHorizontalWhitespace(line.charAt(end))) {
+            end++;
+        }
+        if (line.startsWith("<br>", end) || line.startsWith("<br/>", end)) {
+            asciidoc.append(PARAGRAPH_BREAK).append(LINE_BREAK, 1, LINE_BREAK.length());
+            return line.indexOf('>', end) + 1;
+        }
+        if (end > index) {
+            asciidoc.append(PARAGRAPH_BREAK);
+        }
+        else {
+            asciidoc.append("</strong>"); // stripped with the other tags
+        }
+        return end;
+    }
+
+    // remove "<[^<>]*>" from the given index on
+    private static void stripTags(StringBuilder text, int start) {
+        int length = text.length();
+        int write = start;
+        int read = start;
+        while (read < length) {
+            char c = text.charAt(read);
+            if (c == '<') {
+                int end = read + 1;
+                while (end < length && text.charAt(end) != '<' && text.charAt(end) != '>') {
+                    end++;
+                }
+                if (end < length && text.charAt(end) == '>') {
+                    read = end + 1;
+                    continue;
+                }
+            }
+            text.setCharAt(write++, c);
+            read++;
+        }
+        text.setLength(write);
     }
 
     public static final String simpleTagletToAsciidoc(String tagletName, List<?> tagletFragments) {
@@ -85,8 +186,8 @@ public class AsciidocUtils {
         Javadoc internalJavadoc = (Javadoc) internal;
         @SuppressWarnings("unchecked")
         List<TagElement> tagList = internalJavadoc.tags();
-        StringBuilder text = new StringBuilder();
 
+        StringBuilder text = new StringBuilder();
         boolean openedOrderedList = false;
         for (TagElement tagElement : tagList) {
             // only consider the javadoc description
@@ -111,7 +212,7 @@ public class AsciidocUtils {
                             openedOrderedList = true;
                         }
 
-                        text.append(simpleHtmlToAsciidoc(line, openedOrderedList));
+                        appendSimpleHtmlAsAsciidoc(text, line, openedOrderedList);
                     }
                     else {
                         // we append a space at the end so that javadoc linebreaks in the
@@ -128,18 +229,62 @@ public class AsciidocUtils {
                 }
             }
         }
-        // @formatter:off
-        //second pass on each line to trim undesirable spaces
-        String trimmed = NEWLINE_PATTERN
-                .splitAsStream(text)
-                .map(line -> line
-                        // we don't want multiple spaces in a row
-                        .replaceAll("\\h\\h+", " ")
-                        //we don't want trailing whitespaces, trim() doesn't work because we do want leading space when relevant
-                        .replaceAll("\\h+$", ""))
-                .collect(Collectors.joining(System.lineSeparator()));
-        // @formatter:on
-        return trimmed;
+        // second pass on each line to trim undesirable spaces
+        return trimLines(text);
+    }
+
+    /**
+     * Trim undesirable spaces on each line. Multiple horizontal whitespaces in a row
+     * become a single space and trailing ones are removed, while leading ones are kept
+     * when relevant. The lines are joined with the line separator of the system, and
+     * trailing empty lines are dropped.
+     * @param text text to trim
+     * @return trimmed text
+     */
+    static String trimLines(CharSequence text) {
+        // trailing empty lines are dropped before trimming
+        int length = text.length();
+        while (length > 0 && isLineBreak(text.charAt(length - 1))) {
+            length--;
+        }
+        StringBuilder trimmed = new StringBuilder(length);
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (isLineBreak(c)) {
+                trimmed.append(NEWLINE);
+                i += (c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n') ? 2 : 1;
+            }
+            else if (isHorizontalWhitespace(c)) {
+                int end = i + 1;
+                while (end < length && isHorizontalWhitespace(text.charAt(end))) {
+                    end++;
+                }
+                if (end < length && !isLineBreak(text.charAt(end))) {
+                    // we don't want multiple spaces in a row
+                    trimmed.append((end - i > 1) ? ' ' : c);
+                }
+                // we don't want trailing whitespaces, trim() doesn't work because we do
+                // want leading space when relevant
+                i = end;
+            }
+            else {
+                trimmed.append(c);
+                i++;
+            }
+        }
+        return trimmed.toString();
+    }
+
+    // "\R" without the "\r\n" sequence
+    private static boolean isLineBreak(char c) {
+        return (c >= '\n' && c <= '\r') || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    // "\h"
+    private static boolean isHorizontalWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\u00A0' || c == '\u1680' || c == '\u180e'
+                || (c >= '\u2000' && c <= '\u200a') || c == '\u202f' || c == '\u205f' || c == '\u3000';
     }
 
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs.commons.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+public final class FileUtils {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Move a file, replacing the target. The target is replaced atomically where the file
+     * system supports it, so readers never see a partially written target.
+     * @param source file to move
+     * @param target file to replace
+     * @throws IOException If the file can't be moved.
+     */
+    public static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException ex) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Compare the content of two files without reading them into memory.
+     * @param first a file
+     * @param second another file
+     * @return {@code true} if both files have the same content
+     * @throws IOException If a file can't be read.
+     */
+    public static boolean contentEquals(Path first, Path second) throws IOException {
+        if (Files.size(first) != Files.size(second)) {
+            return false;
+        }
+        byte[] firstBuffer = new byte[BUFFER_SIZE];
+        byte[] secondBuffer = new byte[BUFFER_SIZE];
+        try (InputStream firstInput = Files.newInputStream(first);
+                InputStream secondInput = Files.newInputStream(second)) {
+            while (true) {
+                int firstLength = readFully(firstInput, firstBuffer);
+                int secondLength = readFully(secondInput, secondBuffer);
+                if (firstLength != secondLength) {
+                    return false;
+                }
+                for (int i = 0; i < firstLength; i++) {
+                    if (firstBuffer[i] != secondBuffer[i]) {
+                        return false;
+                    }
+                }
+                if (firstLength < BUFFER_SIZE) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    private static int readFully(InputStream input, byte[] buffer) throws IOException {
+        int length = 0;
+        while (length < buffer.length) {
+            int read = input.read(buffer, length, buffer.length - length);
+            if (read == -1) {
+                break;
+            }
+            length += read;
+        }
+        return length;
+    }
+
+}
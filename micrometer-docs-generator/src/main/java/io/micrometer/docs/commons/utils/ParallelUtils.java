@@ -0,0 +1,122 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs.commons.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import io.micrometer.core.instrument.util.NamedThreadFactory;
+
+public final class ParallelUtils {
+
+    private static final int WINDOW_PER_THREAD = 4;
+
+    /**
+     * Apply the function to each item using up to the given number of threads, and
+     * return the results in the order of the given items.
+     * @param items items to process
+     * @param parallelism number of threads. {@code 1} or less runs on the calling thread.
+     * @param threadNamePrefix thread name prefix
+     * @param function function to apply
+     * @param <T> item type
+     * @param <R> result type
+     * @return results in the order of the items
+     * @see #forEachInOrder(List, int, String, Function, Consumer)
+     */
+    public static <T, R> List<R> mapInOrder(List<T> items, int parallelism, String threadNamePrefix,
+            Function<? super T, ? extends R> function) {
+        List<R> results = new ArrayList<>(items.size());
+        forEachInOrder(items, parallelism, threadNamePrefix, function, results::add);
+        return results;
+    }
+
+    /**
+     * Apply the function to each item using up to the given number of threads, and pass
+     * the results to the consumer on the calling thread in the order of the given items.
+     * Only a limited number of items are processed ahead of the consumer, so that
+     * results waiting to be consumed do not pile up.
+     * <p>
+     * When the function fails for multiple items, the failure of the first item in the
+     * given order is thrown regardless of the thread scheduling, and the remaining tasks
+     * are cancelled.
+     * @param items items to process
+     * @param parallelism number of threads. {@code 1} or less runs on the calling thread.
+     * @param threadNamePrefix thread name prefix
+     * @param function function to apply
+     * @param consumer consumer of the results
+     * @param <T> item type
+     * @param <R> result type
+     */
+    public static <T, R> void forEachInOrder(List<T> items, int parallelism, String threadNamePrefix,
+            Function<? super T, ? extends R> function, Consumer<? super R> consumer) {
+        if (parallelism <= 1 || items.size() <= 1) {
+            for (T item : items) {
+                consumer.accept(function.apply(item));
+            }
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, items.size()),
+                new NamedThreadFactory(threadNamePrefix));
+        try {
+            int window = parallelism * WINDOW_PER_THREAD;
+            Deque<Future<R>> pending = new ArrayDeque<>(window);
+            Iterator<T> iterator = items.iterator();
+            while (iterator.hasNext() || !pending.isEmpty()) {
+                while (iterator.hasNext() && pending.size() < window) {
+                    T item = iterator.next();
+                    pending.add(executor.submit((Callable<R>) () -> function.apply(item)));
+                }
+                consumer.accept(getResult(pending.poll()));
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <R> R getResult(Future<R> future) {
+        try {
+            return future.get();
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the result", ex);
+        }
+        catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+}
@@ -19,7 +19,10 @@ import io.micrometer.common.util.internal.logging.InternalLogger;
 import io.micrometer.common.util.internal.logging.InternalLoggerFactory;
 import io.micrometer.docs.commons.utils.StringUtils;
 
-class ObservationConventionEntry implements Comparable<ObservationConventionEntry> {
+/**
+ * Model object for an {@code ObservationConvention} implementation.
+ */
+public class ObservationConventionEntry implements Comparable<ObservationConventionEntry> {
 
     private static final InternalLogger logger = InternalLoggerFactory.getInstance(ObservationConventionEntry.class);
 
@@ -63,6 +66,12 @@ class ObservationConventionEntry implements Comparable<ObservationConventionEntr
         return compare;
     }
 
+    @Override
+    public String toString() {
+        return "ObservationConventionEntry{className='" + this.className + "', type=" + this.type
+                + ", contextClassName='" + this.contextClassName + "'}";
+    }
+
     public enum Type {
 
         GLOBAL, LOCAL
@@ -15,63 +15,58 @@
  */
 package io.micrometer.docs.conventions;
 
-import java.io.IOException;
-import java.nio.file.FileVisitResult;
-import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import io.micrometer.common.util.internal.logging.InternalLogger;
-import io.micrometer.common.util.internal.logging.InternalLoggerFactory;
+import io.micrometer.common.lang.Nullable;
+import io.micrometer.docs.commons.DocsGeneratorObservationDocumentation.ResolveEvents;
+import io.micrometer.docs.commons.JavaSourceProcessor;
 import io.micrometer.docs.commons.JavaSourceSearchHelper;
 import io.micrometer.observation.GlobalObservationConvention;
-import org.jboss.forge.roaster.Roaster;
+import io.micrometer.observation.Observation;
 import org.jboss.forge.roaster.model.source.JavaSource;
 import org.jboss.forge.roaster.model.source.TypeHolderSource;
 
-class ObservationConventionSearchingFileVisitor extends SimpleFileVisitor<Path> {
+class ObservationConventionSearchingProcessor implements JavaSourceProcessor {
 
-    private static final InternalLogger logger = InternalLoggerFactory
-        .getInstance(ObservationConventionSearchingFileVisitor.class);
-
-    private final Pattern pattern;
+    private static final Pattern CONTEXT_CLASS_PATTERN = Pattern.compile("^.*ObservationConvention<(.*)>$");
 
     private final Collection<ObservationConventionEntry> observationConventionEntries;
 
     private final JavaSourceSearchHelper searchHelper;
 
-    ObservationConventionSearchingFileVisitor(Pattern pattern,
-            Collection<ObservationConventionEntry> observationConventionEntries, JavaSourceSearchHelper searchHelper) {
-        this.pattern = pattern;
+    ObservationConventionSearchingProcessor(Collection<ObservationConventionEntry> observationConventionEntries,
+            JavaSourceSearchHelper searchHelper) {
         this.observationConventionEntries = observationConventionEntries;
         this.searchHelper = searchHelper;
     }
 
     @Override
-    public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) throws IOException {
-        if (!pattern.matcher(path.toString()).matches()) {
-            return FileVisitResult.CONTINUE;
-        }
-        else if (!path.toString().endsWith(".java")) {
-            return FileVisitResult.CONTINUE;
-        }
+    public void process(JavaSource<?> javaSource) {
+        prepare(javaSource).run();
+    }
 
-        logger.debug("Parsing [" + path + "]");
-        JavaSource<?> javaSource = Roaster.parse(JavaSource.class, path.toFile());
-        List<JavaSource<?>> candidates = getCandidates(javaSource);
-        if (candidates.isEmpty()) {
-            return FileVisitResult.CONTINUE;
+    @Override
+    public Runnable prepare(JavaSource<?> javaSource) {
+        List<ObservationConventionEntry> entries = new ArrayList<>();
+        for (JavaSource<?> candidate : getCandidates(javaSource)) {
+            ObservationConventionEntry entry = createEntry(candidate);
+            if (entry != null) {
+                entries.add(entry);
+                recordEntryEmitted();
+            }
         }
+        return () -> this.observationConventionEntries.addAll(entries);
+    }
 
-        for (JavaSource<?> candidate : candidates) {
-            process(candidate);
+    private void recordEntryEmitted() {
+        Observation observation = this.searchHelper.getObservationRegistry().getCurrentObservation();
+        if (observation != null) {
+            observation.event(ResolveEvents.ENTRY_EMITTED);
         }
-        return FileVisitResult.CONTINUE;
     }
 
     private List<JavaSource<?>> getCandidates(JavaSource<?> javaSource) {
@@ -87,30 +82,30 @@ class ObservationConventionSearchingFileVisitor extends SimpleFileVisitor<Path>
         return candidates;
     }
 
-    private void process(JavaSource<?> javaSource) {
+    @Nullable
+    private ObservationConventionEntry createEntry(JavaSource<?> javaSource) {
         String interfaceName = this.searchHelper.searchObservationConventionInterfaceName(javaSource);
         if (interfaceName == null) {
-            return;
+            return null;
         }
         // the returned interface name is canonical name with generics.
         // e.g. "io.micrometer.observation.ObservationConvention<Observation.Context>"
         boolean isGlobal = interfaceName.startsWith(GlobalObservationConvention.class.getName());
         String canonicalName = javaSource.getCanonicalName();
-        Pattern classPattern = Pattern.compile("^.*ObservationConvention<(.*)>$");
-        String conventionContextName = contextClassName(classPattern, interfaceName);
+        String conventionContextName = contextClassName(interfaceName);
 
         if (isGlobal) {
-            this.observationConventionEntries.add(new ObservationConventionEntry(canonicalName,
-                    ObservationConventionEntry.Type.GLOBAL, conventionContextName));
+            return new ObservationConventionEntry(canonicalName, ObservationConventionEntry.Type.GLOBAL,
+                    conventionContextName);
         }
         else {
-            this.observationConventionEntries.add(new ObservationConventionEntry(canonicalName,
-                    ObservationConventionEntry.Type.LOCAL, conventionContextName));
+            return new ObservationConventionEntry(canonicalName, ObservationConventionEntry.Type.LOCAL,
+                    conventionContextName);
         }
     }
 
-    private String contextClassName(Pattern classPattern, String anInterface) {
-        Matcher matcher = classPattern.matcher(anInterface);
+    private String contextClassName(String anInterface) {
+        Matcher matcher = CONTEXT_CLASS_PATTERN.matcher(anInterface);
         if (matcher.matches()) {
             return matcher.group(1);
         }
@@ -17,9 +17,8 @@ package io.micrometer.docs.conventions;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.FileVisitor;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,12 +26,16 @@ import java.util.TreeSet;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
-import com.github.jknack.handlebars.Template;
+import io.micrometer.common.lang.Nullable;
 import io.micrometer.common.util.internal.logging.InternalLogger;
 import io.micrometer.common.util.internal.logging.InternalLoggerFactory;
+import io.micrometer.docs.commons.JavaSourceProcessor;
+import io.micrometer.docs.commons.JavaSourceScanner;
 import io.micrometer.docs.commons.JavaSourceSearchHelper;
-import io.micrometer.docs.commons.templates.HandlebarsUtils;
+import io.micrometer.docs.commons.templates.TemplateRenderer;
 import io.micrometer.docs.conventions.ObservationConventionEntry.Type;
+import io.micrometer.observation.ObservationRegistry;
+import org.jboss.forge.roaster.model.source.JavaSource;
 
 public class ObservationConventionsDocGenerator {
 
@@ -47,33 +50,102 @@ public class ObservationConventionsDocGenerator {
 
     private final Path output;
 
+    @Nullable
+    private final Path cacheDir;
+
     public ObservationConventionsDocGenerator(File projectRoot, Pattern inclusionPattern, String templateLocation,
             Path output) {
+        this(projectRoot, inclusionPattern, templateLocation, output, null);
+    }
+
+    /**
+     * Create a generator.
+     * @param projectRoot project root directory
+     * @param inclusionPattern regex pattern for the java files to include
+     * @param templateLocation template location (either in classpath or file system)
+     * @param output output file
+     * @param cacheDir directory to keep the state used to skip rendering an unchanged
+     * output or {@code null}
+     * @see TemplateRenderer
+     */
+    public ObservationConventionsDocGenerator(File projectRoot, Pattern inclusionPattern, String templateLocation,
+            Path output, @Nullable Path cacheDir) {
         this.projectRoot = projectRoot;
         this.inclusionPattern = inclusionPattern;
         this.templateLocation = templateLocation;
         this.output = output;
+        this.cacheDir = cacheDir;
     }
 
     public void generate() {
-        Path path = this.projectRoot.toPath();
         logger.debug("Path is [" + this.projectRoot.getAbsolutePath() + "]. Inclusion pattern is ["
                 + this.inclusionPattern + "]");
-        TreeSet<ObservationConventionEntry> observationConventionEntries = new TreeSet<>();
         JavaSourceSearchHelper searchHelper = JavaSourceSearchHelper.create(this.projectRoot.toPath(),
                 this.inclusionPattern);
-        FileVisitor<Path> fv = new ObservationConventionSearchingFileVisitor(this.inclusionPattern,
-                observationConventionEntries, searchHelper);
-        try {
-            Files.walkFileTree(path, fv);
-            printObservationConventionsAdoc(observationConventionEntries);
-        }
-        catch (IOException e) {
-            throw new IllegalArgumentException(e);
-        }
+
+        new JavaSourceScanner(searchHelper).register(createProcessor(searchHelper)).scan();
     }
 
-    private void printObservationConventionsAdoc(TreeSet<ObservationConventionEntry> entries) throws IOException {
+    /**
+     * Create a {@link JavaSourceProcessor} that collects observation conventions from the
+     * scanned sources and writes the conventions adoc when the scan completes.
+     * @param searchHelper search helper shared by the scan
+     * @return a processor to register to a {@link JavaSourceScanner}
+     */
+    public JavaSourceProcessor createProcessor(JavaSourceSearchHelper searchHelper) {
+        TreeSet<ObservationConventionEntry> observationConventionEntries = new TreeSet<>();
+        JavaSourceProcessor collector = createCollector(searchHelper, observationConventionEntries);
+        return new JavaSourceProcessor() {
+
+            @Override
+            public void process(JavaSource<?> javaSource) {
+                collector.process(javaSource);
+            }
+
+            @Override
+            public Runnable prepare(JavaSource<?> javaSource) {
+                return collector.prepare(javaSource);
+            }
+
+            @Override
+            public void complete() {
+                try {
+                    printObservationConventionsAdoc(observationConventionEntries,
+                            searchHelper.getObservationRegistry());
+                }
+                catch (IOException e) {
+                    throw new IllegalArgumentException(e);
+                }
+            }
+
+        };
+    }
+
+    /**
+     * Create a {@link JavaSourceProcessor} that collects observation conventions from the
+     * scanned sources into the given collection.
+     * @param searchHelper search helper shared by the scan
+     * @param entries collection to add the entries to
+     * @return a processor to register to a {@link JavaSourceScanner}
+     */
+    public static JavaSourceProcessor createCollector(JavaSourceSearchHelper searchHelper,
+            Collection<ObservationConventionEntry> entries) {
+        return new ObservationConventionSearchingProcessor(entries, searchHelper);
+    }
+
+    /**
+     * Render the given observation conventions to the output file.
+     * @param entries observation conventions to render
+     * @param observationRegistry registry to observe the rendering with
+     * @throws IOException If the template or the output can't be read or written.
+     */
+    public void render(Collection<ObservationConventionEntry> entries, ObservationRegistry observationRegistry)
+            throws IOException {
+        printObservationConventionsAdoc(entries, observationRegistry);
+    }
+
+    private void printObservationConventionsAdoc(Collection<ObservationConventionEntry> entries,
+            ObservationRegistry observationRegistry) throws IOException {
         List<ObservationConventionEntry> globals = entries.stream()
             .filter(e -> e.getType() == Type.GLOBAL)
             .collect(Collectors.toList());
@@ -81,14 +153,10 @@ public class ObservationConventionsDocGenerator {
             .filter(e -> e.getType() == Type.LOCAL)
             .collect(Collectors.toList());
 
-        Template template = HandlebarsUtils.createTemplate(this.templateLocation);
-
         Map<String, Object> map = new HashMap<>();
         map.put("globals", globals);
         map.put("locals", locals);
-        String result = template.apply(map);
-
-        Files.write(this.output, result.getBytes());
+        new TemplateRenderer(this.templateLocation, this.output, this.cacheDir, observationRegistry).render(map);
     }
 
 }
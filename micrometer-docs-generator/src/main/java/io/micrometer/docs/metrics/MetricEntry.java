@@ -25,7 +25,11 @@ import io.micrometer.docs.commons.KeyNameEntry;
 import io.micrometer.docs.commons.utils.Assert;
 import io.micrometer.docs.commons.utils.StringUtils;
 
-class MetricEntry implements Comparable<MetricEntry> {
+/**
+ * Model object for a {@code MeterDocumentation} or an {@code ObservationDocumentation}
+ * enum constant.
+ */
+public class MetricEntry implements Comparable<MetricEntry> {
 
     final String enclosingClass;
 
@@ -80,6 +84,13 @@ class MetricEntry implements Comparable<MetricEntry> {
         return this.enclosingClass.compareTo(o.enclosingClass);
     }
 
+    @Override
+    public String toString() {
+        return "MetricEntry{enclosingClass='" + this.enclosingClass + "', enumName='" + this.enumName
+                + "', description='" + this.description + "', prefix='" + this.prefix + "', lowCardinalityKeyNames="
+                + this.lowCardinalityKeyNames + ", events=" + this.events + ", metricInfos=" + this.metricInfos + "}";
+    }
+
     public String getDescription() {
         return this.description;
     }
@@ -163,6 +174,12 @@ class MetricEntry implements Comparable<MetricEntry> {
             return sb.toString();
         }
 
+        @Override
+        public String toString() {
+            return "MetricInfo{name='" + this.name + "', nameOrigin='" + this.nameOrigin + "', type=" + this.type
+                    + ", baseUnit='" + this.baseUnit + "'}";
+        }
+
     }
 
 }
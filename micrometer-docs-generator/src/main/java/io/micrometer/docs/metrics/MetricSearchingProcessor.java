@@ -15,15 +15,11 @@
  */
 package io.micrometer.docs.metrics;
 
-import java.io.IOException;
-import java.nio.file.FileVisitResult;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import io.micrometer.common.util.internal.logging.InternalLogger;
@@ -31,14 +27,13 @@ import io.micrometer.common.util.internal.logging.InternalLoggerFactory;
 import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.Meter.Type;
 import io.micrometer.core.instrument.docs.MeterDocumentation;
-import io.micrometer.docs.commons.AbstractSearchingFileVisitor;
+import io.micrometer.docs.commons.AbstractSearchingProcessor;
 import io.micrometer.docs.commons.EventEntry;
 import io.micrometer.docs.commons.EventEntryForMetricEnumConstantReader;
 import io.micrometer.docs.commons.JavaSourceSearchHelper;
 import io.micrometer.docs.commons.KeyNameEntry;
 import io.micrometer.docs.commons.KeyNameEnumConstantReader;
 import io.micrometer.docs.commons.ParsingUtils;
-import io.micrometer.docs.commons.utils.AsciidocUtils;
 import io.micrometer.docs.commons.utils.Assert;
 import io.micrometer.docs.commons.utils.StringUtils;
 import io.micrometer.docs.metrics.MetricEntry.MetricInfo;
@@ -50,14 +45,14 @@ import org.jboss.forge.roaster.model.source.JavaEnumSource;
 import org.jboss.forge.roaster.model.source.JavaSource;
 import org.jboss.forge.roaster.model.source.MethodSource;
 
-class MetricSearchingFileVisitor extends AbstractSearchingFileVisitor {
+class MetricSearchingProcessor extends AbstractSearchingProcessor<MetricEntry> {
 
-    private static final InternalLogger logger = InternalLoggerFactory.getInstance(MetricSearchingFileVisitor.class);
+    private static final InternalLogger logger = InternalLoggerFactory.getInstance(MetricSearchingProcessor.class);
 
     private final Collection<MetricEntry> entries;
 
-    MetricSearchingFileVisitor(Pattern pattern, Collection<MetricEntry> entries, JavaSourceSearchHelper searchHelper) {
-        super(pattern, searchHelper);
+    MetricSearchingProcessor(Collection<MetricEntry> entries, JavaSourceSearchHelper searchHelper) {
+        super(searchHelper);
         this.entries = entries;
     }
 
@@ -67,16 +62,20 @@ class MetricSearchingFileVisitor extends AbstractSearchingFileVisitor {
     }
 
     @Override
-    public void onEnumConstant(JavaEnumSource enclosingEnumSource, EnumConstantSource enumConstant) {
+    public MetricEntry onEnumConstant(JavaEnumSource enclosingEnumSource, EnumConstantSource enumConstant) {
         MetricEntry entry = parseMetric(enumConstant, enclosingEnumSource);
-        entries.add(entry);
         logger.debug("Found [" + entry.lowCardinalityKeyNames.size() + "]");
+        return entry;
     }
 
     @Override
-    public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+    protected void addEntry(MetricEntry entry) {
+        this.entries.add(entry);
+    }
+
+    @Override
+    public void complete() {
         validatePrefixOnTags();
-        return FileVisitResult.CONTINUE;
     }
 
     private void validatePrefixOnTags() {
@@ -106,7 +105,7 @@ class MetricSearchingFileVisitor extends AbstractSearchingFileVisitor {
     private MetricEntry parseMetric(EnumConstantSource enumConstant, JavaEnumSource myEnum) {
         boolean isObservationDoc = myEnum.hasInterface(ObservationDocumentation.class);
 
-        String description = AsciidocUtils.javadocToAsciidoc(enumConstant.getJavaDoc());
+        String description = ParsingUtils.enumConstantDescription(enumConstant);
         String prefix = "";
         String baseUnit = "";
         Meter.Type type = Meter.Type.TIMER;
@@ -170,14 +169,21 @@ class MetricSearchingFileVisitor extends AbstractSearchingFileVisitor {
 
         String name = nameInfo.getName();
         String nameOrigin = nameInfo.getNameOrigin();
-        events.forEach(event -> event.setName(name + "." + event.getName()));
+        // the read events are shared by the entries referencing the same enum
+        events.replaceAll(event -> {
+            EventEntry prefixedEvent = new EventEntry();
+            prefixedEvent.setName(name + "." + event.getName());
+            prefixedEvent.setDescription(event.getDescription());
+            return prefixedEvent;
+        });
 
         // @formatter:off
         // if entry has overridesDefaultSpanFrom - read tags from that thing
         // if entry has overridesDefaultSpanFrom AND getKeyNames() - we pick only the latter
         // if entry has overridesDefaultSpanFrom AND getAdditionalKeyNames() - we pick both
         // @formatter:on
-        if (overridesDefaultMetricFrom != null && lowCardinalityTags.isEmpty()) {
+        if (overridesDefaultMetricFrom != null && ParsingUtils.hasBody(overridesDefaultMetricFrom)
+                && lowCardinalityTags.isEmpty()) {
             MethodSource<?> keyMethodSource = this.searchHelper.searchMethodSource(overridesDefaultMetricFrom.getBody(),
                     "getLowCardinalityKeyNames");
             if (keyMethodSource != null) {
@@ -17,8 +17,6 @@ package io.micrometer.docs.metrics;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.FileVisitor;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.HashMap;
@@ -26,11 +24,17 @@ import java.util.Map;
 import java.util.TreeSet;
 import java.util.regex.Pattern;
 
-import com.github.jknack.handlebars.Template;
+import io.micrometer.common.lang.Nullable;
 import io.micrometer.common.util.internal.logging.InternalLogger;
 import io.micrometer.common.util.internal.logging.InternalLoggerFactory;
+import io.micrometer.docs.commons.DocsGeneratorObservationDocumentation;
+import io.micrometer.docs.commons.DocsGeneratorObservationDocumentation.DocumentKeyNames;
+import io.micrometer.docs.commons.JavaSourceProcessor;
+import io.micrometer.docs.commons.JavaSourceScanner;
 import io.micrometer.docs.commons.JavaSourceSearchHelper;
-import io.micrometer.docs.commons.templates.HandlebarsUtils;
+import io.micrometer.docs.commons.templates.TemplateRenderer;
+import io.micrometer.observation.ObservationRegistry;
+import org.jboss.forge.roaster.model.source.JavaSource;
 
 public class MetricsDocGenerator {
 
@@ -44,40 +48,107 @@ public class MetricsDocGenerator {
 
     private final Path output;
 
+    @Nullable
+    private final Path cacheDir;
+
     public MetricsDocGenerator(File projectRoot, Pattern inclusionPattern, String templateLocation, Path output) {
+        this(projectRoot, inclusionPattern, templateLocation, output, null);
+    }
+
+    /**
+     * Create a generator.
+     * @param projectRoot project root directory
+     * @param inclusionPattern regex pattern for the java files to include
+     * @param templateLocation template location (either in classpath or file system)
+     * @param output output file
+     * @param cacheDir directory to keep the state used to skip rendering an unchanged
+     * output or {@code null}
+     * @see TemplateRenderer
+     */
+    public MetricsDocGenerator(File projectRoot, Pattern inclusionPattern, String templateLocation, Path output,
+            @Nullable Path cacheDir) {
         this.projectRoot = projectRoot;
         this.inclusionPattern = inclusionPattern;
         this.templateLocation = templateLocation;
         this.output = output;
+        this.cacheDir = cacheDir;
     }
 
     public void generate() {
-        Path path = this.projectRoot.toPath();
         logger.debug("Path is [" + this.projectRoot.getAbsolutePath() + "]. Inclusion pattern is ["
                 + this.inclusionPattern + "]");
 
         JavaSourceSearchHelper searchHelper = JavaSourceSearchHelper.create(this.projectRoot.toPath(),
                 this.inclusionPattern);
 
+        new JavaSourceScanner(searchHelper).register(createProcessor(searchHelper)).scan();
+    }
+
+    /**
+     * Create a {@link JavaSourceProcessor} that collects metrics from the scanned sources
+     * and writes the metrics adoc when the scan completes.
+     * @param searchHelper search helper shared by the scan
+     * @return a processor to register to a {@link JavaSourceScanner}
+     */
+    public JavaSourceProcessor createProcessor(JavaSourceSearchHelper searchHelper) {
         Collection<MetricEntry> entries = new TreeSet<>();
-        FileVisitor<Path> fv = new MetricSearchingFileVisitor(this.inclusionPattern, entries, searchHelper);
-        try {
-            Files.walkFileTree(path, fv);
-            printMetricsAdoc(entries);
-        }
-        catch (IOException e) {
-            throw new IllegalArgumentException(e);
-        }
+        JavaSourceProcessor collector = createCollector(searchHelper, entries);
+        return new JavaSourceProcessor() {
+
+            @Override
+            public void process(JavaSource<?> javaSource) {
+                collector.process(javaSource);
+            }
+
+            @Override
+            public Runnable prepare(JavaSource<?> javaSource) {
+                return collector.prepare(javaSource);
+            }
+
+            @Override
+            public void complete() {
+                DocsGeneratorObservationDocumentation.VALIDATE.observation(searchHelper.getObservationRegistry())
+                    .lowCardinalityKeyValue(DocumentKeyNames.DOCUMENT.asString(), output.getFileName().toString())
+                    .observe(collector::complete);
+                try {
+                    printMetricsAdoc(entries, searchHelper.getObservationRegistry());
+                }
+                catch (IOException e) {
+                    throw new IllegalArgumentException(e);
+                }
+            }
+
+        };
     }
 
-    private void printMetricsAdoc(Collection<MetricEntry> entries) throws IOException {
-        Template template = HandlebarsUtils.createTemplate(this.templateLocation);
+    /**
+     * Create a {@link JavaSourceProcessor} that collects metrics from the scanned sources
+     * into the given collection. The collected entries are validated when the scan
+     * completes.
+     * @param searchHelper search helper shared by the scan
+     * @param entries collection to add the entries to
+     * @return a processor to register to a {@link JavaSourceScanner}
+     */
+    public static JavaSourceProcessor createCollector(JavaSourceSearchHelper searchHelper,
+            Collection<MetricEntry> entries) {
+        return new MetricSearchingProcessor(entries, searchHelper);
+    }
+
+    /**
+     * Render the given metrics to the output file.
+     * @param entries metrics to render
+     * @param observationRegistry registry to observe the rendering with
+     * @throws IOException If the template or the output can't be read or written.
+     */
+    public void render(Collection<MetricEntry> entries, ObservationRegistry observationRegistry) throws IOException {
+        printMetricsAdoc(entries, observationRegistry);
+    }
 
+    private void printMetricsAdoc(Collection<MetricEntry> entries,
+            ObservationRegistry observationRegistry) throws IOException {
         Map<String, Object> map = new HashMap<>();
         map.put("entries", entries);
-        String result = template.apply(map);
-
-        Files.write(this.output, result.getBytes());
+        new TemplateRenderer(this.templateLocation, this.output, this.cacheDir, observationRegistry).render(map);
     }
 
 }
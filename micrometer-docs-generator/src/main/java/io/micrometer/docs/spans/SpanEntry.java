@@ -26,7 +26,11 @@ import io.micrometer.docs.commons.KeyNameEntry;
 import io.micrometer.docs.commons.utils.Assert;
 import io.micrometer.docs.commons.utils.StringUtils;
 
-class SpanEntry implements Comparable<SpanEntry> {
+/**
+ * Model object for a {@code SpanDocumentation} or an {@code ObservationDocumentation}
+ * enum constant.
+ */
+public class SpanEntry implements Comparable<SpanEntry> {
 
     final String name;
 
@@ -85,6 +89,13 @@ class SpanEntry implements Comparable<SpanEntry> {
         return this.enclosingClass.compareTo(o.enclosingClass);
     }
 
+    @Override
+    public String toString() {
+        return "SpanEntry{name='" + this.name + "', nameOrigin='" + this.nameOrigin + "', enclosingClass='"
+                + this.enclosingClass + "', enumName='" + this.enumName + "', description='" + this.description
+                + "', prefix='" + this.prefix + "', tagKeys=" + this.tagKeys + ", events=" + this.events + "}";
+    }
+
     public String getSpanTitle() {
         // TODO: convert to handlebar helper
         String name = Arrays.stream(this.enumName.replace("_", " ").split(" "))
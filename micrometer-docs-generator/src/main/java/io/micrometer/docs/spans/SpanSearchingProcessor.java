@@ -15,22 +15,18 @@
  */
 package io.micrometer.docs.spans;
 
-import java.io.IOException;
-import java.nio.file.FileVisitResult;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import io.micrometer.common.util.internal.logging.InternalLogger;
 import io.micrometer.common.util.internal.logging.InternalLoggerFactory;
-import io.micrometer.docs.commons.AbstractSearchingFileVisitor;
+import io.micrometer.docs.commons.AbstractSearchingProcessor;
 import io.micrometer.docs.commons.EventEntry;
 import io.micrometer.docs.commons.EventEntryForSpanEnumConstantReader;
 import io.micrometer.docs.commons.EventValueEntryEnumConstantReader;
@@ -38,7 +34,6 @@ import io.micrometer.docs.commons.JavaSourceSearchHelper;
 import io.micrometer.docs.commons.KeyNameEntry;
 import io.micrometer.docs.commons.KeyNameEnumConstantReader;
 import io.micrometer.docs.commons.ParsingUtils;
-import io.micrometer.docs.commons.utils.AsciidocUtils;
 import io.micrometer.docs.commons.utils.Assert;
 import io.micrometer.docs.commons.utils.StringUtils;
 import io.micrometer.observation.docs.ObservationDocumentation;
@@ -50,19 +45,20 @@ import org.jboss.forge.roaster.model.source.JavaEnumSource;
 import org.jboss.forge.roaster.model.source.JavaSource;
 import org.jboss.forge.roaster.model.source.MethodSource;
 
-class SpanSearchingFileVisitor extends AbstractSearchingFileVisitor {
+class SpanSearchingProcessor extends AbstractSearchingProcessor<SpanEntry> {
 
-    private static final InternalLogger logger = InternalLoggerFactory.getInstance(SpanSearchingFileVisitor.class);
+    private static final InternalLogger logger = InternalLoggerFactory.getInstance(SpanSearchingProcessor.class);
 
     private final Collection<SpanEntry> spanEntries;
 
     /**
-     * The enclosing enum classes for overriding will be excluded from documentation
+     * The enclosing enum classes for overriding will be excluded from documentation.
+     * Populated while parsing, which may happen concurrently in parallel scans.
      */
-    private final Set<String> overrideEnumClassNames = new HashSet<>();
+    private final Set<String> overrideEnumClassNames = ConcurrentHashMap.newKeySet();
 
-    SpanSearchingFileVisitor(Pattern pattern, Collection<SpanEntry> spanEntries, JavaSourceSearchHelper searchHelper) {
-        super(pattern, searchHelper);
+    SpanSearchingProcessor(Collection<SpanEntry> spanEntries, JavaSourceSearchHelper searchHelper) {
+        super(searchHelper);
         this.spanEntries = spanEntries;
     }
 
@@ -72,17 +68,21 @@ class SpanSearchingFileVisitor extends AbstractSearchingFileVisitor {
     }
 
     @Override
-    public void onEnumConstant(JavaEnumSource enclosingEnumSource, EnumConstantSource enumConstant) {
+    public SpanEntry onEnumConstant(JavaEnumSource enclosingEnumSource, EnumConstantSource enumConstant) {
         SpanEntry entry = parseSpan(enumConstant, enclosingEnumSource);
-        spanEntries.add(entry);
         logger.debug("Found [" + entry.tagKeys.size() + "] tags and [" + entry.events.size() + "] events");
+        return entry;
     }
 
     @Override
-    public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+    protected void addEntry(SpanEntry entry) {
+        this.spanEntries.add(entry);
+    }
+
+    @Override
+    public void complete() {
         removeOverrideEntries();
         validatePrefixOnTags();
-        return FileVisitResult.CONTINUE;
     }
 
     private void removeOverrideEntries() {
@@ -121,7 +121,7 @@ class SpanSearchingFileVisitor extends AbstractSearchingFileVisitor {
     private SpanEntry parseSpan(EnumConstantSource enumConstant, JavaEnumSource myEnum) {
         boolean isObservationDoc = myEnum.hasInterface(ObservationDocumentation.class);
 
-        String description = AsciidocUtils.javadocToAsciidoc(enumConstant.getJavaDoc());
+        String description = ParsingUtils.enumConstantDescription(enumConstant);
         String prefix = "";
         List<KeyNameEntry> tags = new ArrayList<>();
         List<KeyNameEntry> additionalKeyNames = new ArrayList<>();
@@ -218,7 +218,7 @@ class SpanSearchingFileVisitor extends AbstractSearchingFileVisitor {
     private List<KeyNameEntry> getKeyNameEntriesFromEnumConstant(EnumConstantSource enumConstantSource,
             String methodName) {
         List<KeyNameEntry> tags = new ArrayList<>();
-        MethodSource<?> methodSource = enumConstantSource.getBody().getMethod(methodName);
+        MethodSource<?> methodSource = ParsingUtils.enumConstantMethod(enumConstantSource, methodName);
         if (methodSource != null) {
             JavaEnumSource enclosingEnumSource = enumConstantSource.getOrigin();
             List<KeyNameEntry> keys = retrieveEnumValues(enclosingEnumSource, methodSource,
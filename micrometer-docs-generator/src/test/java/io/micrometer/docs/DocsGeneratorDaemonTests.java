@@ -0,0 +1,82 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DocsGeneratorDaemon}.
+ */
+class DocsGeneratorDaemonTests {
+
+    @TempDir
+    Path output;
+
+    @Test
+    void reuseIndexBetweenRequests() throws IOException {
+        String request = String.join("\t", "./src/test", ".*/docs/metrics/[a-zA-Z]+\\.java", this.output.toString(),
+                "--metrics");
+        String input = request + "\t--metrics-report=first.json\n\n" + request + "\t--metrics-report=second.json\n"
+                + "exit\n" + request + "\t--metrics-report=ignored.json\n";
+
+        String[] responses = serve(input);
+
+        assertThat(responses).hasSize(3);
+        assertThat(responses[0]).isEqualTo(DocsGeneratorDaemon.RESPONSE_PREFIX + "ready");
+        assertThat(responses[1]).startsWith(DocsGeneratorDaemon.RESPONSE_PREFIX + "ok ");
+        assertThat(responses[2]).startsWith(DocsGeneratorDaemon.RESPONSE_PREFIX + "ok ");
+        assertThat(this.output.resolve("_metrics.adoc")).exists();
+        assertThat(read(this.output.resolve("first.json"))).contains("\"source\": \"declarations\"");
+        // the second request only parses the candidate files again
+        assertThat(read(this.output.resolve("second.json"))).doesNotContain("\"source\": \"declarations\"")
+            .contains("\"source\": \"scan\"");
+        assertThat(this.output.resolve("ignored.json")).doesNotExist();
+    }
+
+    @Test
+    void reportFailedRequest() throws IOException {
+        String[] responses = serve("./src/test\n");
+
+        assertThat(responses).hasSize(2);
+        assertThat(responses[1]).startsWith(DocsGeneratorDaemon.RESPONSE_PREFIX + "error ");
+    }
+
+    private static String[] serve(String input) throws IOException {
+        StringWriter output = new StringWriter();
+        try (PrintWriter writer = new PrintWriter(output)) {
+            new DocsGeneratorDaemon().serve(new BufferedReader(new StringReader(input)), writer);
+        }
+        return output.toString().split(System.lineSeparator());
+    }
+
+    private static String read(Path path) throws IOException {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.regex.Pattern;
+
+import io.micrometer.docs.conventions.ObservationConventionEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DocsGenerator}.
+ */
+class DocsGeneratorTests {
+
+    private static final Path ROOT = Paths.get("./src/test/java/io/micrometer/docs/conventions/data1");
+
+    @TempDir
+    Path output;
+
+    @Test
+    void collectEntries() {
+        DocsModel model = DocsGenerator.builder(ROOT, Pattern.compile(".*")).build().collect();
+
+        assertThat(model.getMetrics()).isEmpty();
+        assertThat(model.getSpans()).isEmpty();
+        assertThat(model.getConventions()).extracting(ObservationConventionEntry::getClassName)
+            .containsExactlyInAnyOrder("io.micrometer.docs.conventions.data1.MyConvention",
+                    "io.micrometer.docs.conventions.data1.MyGlobalConvention");
+    }
+
+    @Test
+    void renderCollectedEntries() throws IOException {
+        DocsGenerator generator = DocsGenerator.builder(ROOT, Pattern.compile(".*")).build();
+        Path conventions = this.output.resolve("_conventions.adoc");
+
+        generator.renderConventions(generator.collect(), DocsGenerator.DEFAULT_CONVENTIONS_TEMPLATE, conventions);
+
+        assertThat(new String(Files.readAllBytes(conventions), StandardCharsets.UTF_8))
+            .contains("|`io.micrometer.docs.conventions.data1.MyGlobalConvention`|`MyContext`")
+            .contains("|`io.micrometer.docs.conventions.data1.MyConvention`|`MyContext`");
+    }
+
+    @Test
+    void refreshSharesSourceCache() {
+        DocsGenerator generator = DocsGenerator.builder(ROOT, Pattern.compile(".*")).build();
+        DocsModel model = generator.collect();
+
+        DocsGenerator refreshed = generator.refresh();
+
+        assertThat(refreshed.getSearchHelper().getSourceCache()).isSameAs(generator.getSearchHelper().getSourceCache());
+        assertThat(refreshed.getSearchHelper().getIndex().size()).isEqualTo(3);
+        assertThat(refreshed.collect().getConventions()).isEqualTo(model.getConventions());
+    }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import io.micrometer.docs.commons.DocsGeneratorObservationDocumentation;
+import io.micrometer.docs.commons.DocsGeneratorObservationDocumentation.ResolveEvents;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the {@code --metrics-report} option of {@link DocsGeneratorCommand}.
+ */
+class MetricsReportTests {
+
+    @Test
+    void writeMetricsReport(@TempDir Path output) throws IOException {
+        DocsGeneratorCommand.main("./src/test", ".*/docs/metrics/[a-zA-Z]+\\.java", output.toString(), "--metrics",
+                "--metrics-report=report/metrics.json");
+
+        assertThat(output.resolve("_metrics.adoc")).exists();
+        String report = new String(Files.readAllBytes(output.resolve("report/metrics.json")), StandardCharsets.UTF_8);
+        assertThat(report).startsWith("{")
+            .contains("{\"name\": \"docs.generator.walk\"")
+            .contains("{\"name\": \"docs.generator.parse\", \"tags\": {\"error\": \"none\", \"source\": \"declarations\"}")
+            .contains("{\"name\": \"docs.generator.parse\", \"tags\": {\"error\": \"none\", \"source\": \"scan\"}")
+            .contains("{\"name\": \"docs.generator.resolve\"")
+            .contains("{\"name\": \"docs.generator.resolve.enums\"")
+            .contains("{\"name\": \"docs.generator.resolve.entries\"")
+            .contains("{\"name\": \"docs.generator.validate\", \"tags\": {\"document\": \"_metrics.adoc\"")
+            .contains("{\"name\": \"docs.generator.render\", \"tags\": {\"document\": \"_metrics.adoc\"")
+            .contains("\"outcome\": \"written\"")
+            .contains("{\"name\": \"docs.generator.source.cache.hits\"")
+            .doesNotContain("docs.generator.render.active")
+            .endsWith("}\n");
+    }
+
+    @Test
+    void tableListsTimersAndCounters() {
+        MetricsReport report = new MetricsReport();
+        DocsGeneratorObservationDocumentation.RESOLVE.observation(report.getObservationRegistry())
+            .observe(() -> report.getObservationRegistry()
+                .getCurrentObservation()
+                .event(ResolveEvents.ENTRY_EMITTED));
+
+        List<String> table = report.toTable();
+        assertThat(table).hasSize(3);
+        assertThat(table.get(0)).startsWith("Name");
+        assertThat(table.get(1)).startsWith("docs.generator.resolve ").contains("error=none");
+        assertThat(table.get(2)).startsWith("docs.generator.resolve.entries ").contains(" 1 ");
+    }
+
+}
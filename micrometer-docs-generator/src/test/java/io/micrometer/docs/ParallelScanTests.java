@@ -0,0 +1,156 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.regex.Pattern;
+
+import io.micrometer.docs.commons.JavaSourceCache;
+import io.micrometer.docs.commons.JavaSourceScanner;
+import io.micrometer.docs.commons.JavaSourceSearchHelper;
+import io.micrometer.docs.conventions.ObservationConventionsDocGenerator;
+import io.micrometer.docs.fixtures.SyntheticSourceTree;
+import io.micrometer.docs.metrics.MetricsDocGenerator;
+import io.micrometer.docs.spans.SpansDocGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests that scanning in parallel generates the same documents as a serial scan.
+ */
+class ParallelScanTests {
+
+    private static final String[] DOCUMENTS = { "_metrics.adoc", "_spans.adoc", "_conventions.adoc" };
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void metrics() throws IOException {
+        File root = new File("./src/test");
+        Pattern pattern = Pattern.compile(".*/docs/metrics/[a-zA-Z]+\\.java");
+        Path serial = Paths.get(".", "build/parallel/serial", "_metrics.adoc");
+        Path parallel = Paths.get(".", "build/parallel/parallel", "_metrics.adoc");
+
+        scan(root, pattern, 1, new MetricsDocGenerator(root, pattern, "templates/metrics.adoc.hbs", serial));
+        scan(root, pattern, 4, new MetricsDocGenerator(root, pattern, "templates/metrics.adoc.hbs", parallel));
+
+        assertThat(Files.readAllBytes(parallel)).isEqualTo(Files.readAllBytes(serial));
+    }
+
+    @Test
+    void spans() throws IOException {
+        File root = new File("./src/test/java/io/micrometer/docs/spans/test3");
+        Pattern pattern = Pattern.compile(".*");
+        Path serial = Paths.get(".", "build/parallel/serial", "_spans.adoc");
+        Path parallel = Paths.get(".", "build/parallel/parallel", "_spans.adoc");
+
+        scan(root, pattern, 1, new SpansDocGenerator(root, pattern, "templates/spans.adoc.hbs", serial));
+        scan(root, pattern, 4, new SpansDocGenerator(root, pattern, "templates/spans.adoc.hbs", parallel));
+
+        assertThat(Files.readAllBytes(parallel)).isEqualTo(Files.readAllBytes(serial));
+        assertThat(new String(Files.readAllBytes(parallel))).doesNotContain("==== Parent Span");
+    }
+
+    @Test
+    void conventions() throws IOException {
+        File root = new File("./src/test/java/io/micrometer/docs/conventions/data1");
+        Pattern pattern = Pattern.compile(".*");
+        Path serial = Paths.get(".", "build/parallel/serial", "_conventions.adoc");
+        Path parallel = Paths.get(".", "build/parallel/parallel", "_conventions.adoc");
+
+        scan(root, pattern, 1,
+                new ObservationConventionsDocGenerator(root, pattern, "templates/conventions.adoc.hbs", serial));
+        scan(root, pattern, 4,
+                new ObservationConventionsDocGenerator(root, pattern, "templates/conventions.adoc.hbs", parallel));
+
+        assertThat(Files.readAllBytes(parallel)).isEqualTo(Files.readAllBytes(serial));
+    }
+
+    @Test
+    void repeatedParallelScansOfSyntheticTree() throws IOException {
+        SyntheticSourceTree tree = SyntheticSourceTree.builder()
+            .packages(10)
+            .metersPerPackage(3)
+            .observationsPerPackage(3)
+            .nestingDepth(3)
+            .conventionDepth(3)
+            .build();
+        Path sources = this.dir.resolve("sources");
+        tree.generate(sources);
+        Pattern pattern = Pattern.compile(".*");
+
+        Path serial = this.dir.resolve("serial");
+        DocsGenerator serialGenerator = DocsGenerator.builder(sources, pattern).build();
+        render(serialGenerator, serialGenerator.collect(), serial);
+        // the tags and events shared between packages include constants without javadoc
+        String metrics = new String(Files.readAllBytes(serial.resolve(DOCUMENTS[0])), StandardCharsets.UTF_8);
+        assertThat(metrics).contains("p9.region", "p9.failed", "p8.failed");
+
+        // the parallel scans share the parsed sources of one cache between their threads
+        DocsGenerator parallelGenerator = DocsGenerator.builder(sources, pattern)
+            .parallelism(8)
+            .sourceCache(new JavaSourceCache(4096))
+            .build();
+        for (int i = 0; i < 10; i++) {
+            Path parallel = this.dir.resolve("parallel-" + i);
+            render(parallelGenerator, parallelGenerator.collect(), parallel);
+            for (String document : DOCUMENTS) {
+                assertThat(Files.readAllBytes(parallel.resolve(document)))
+                    .as("%s of parallel scan %d", document, i)
+                    .isEqualTo(Files.readAllBytes(serial.resolve(document)));
+            }
+        }
+    }
+
+    private void render(DocsGenerator generator, DocsModel model, Path output) throws IOException {
+        Files.createDirectories(output);
+        generator.renderMetrics(model, DocsGenerator.DEFAULT_METRICS_TEMPLATE, output.resolve(DOCUMENTS[0]));
+        generator.renderSpans(model, DocsGenerator.DEFAULT_SPANS_TEMPLATE, output.resolve(DOCUMENTS[1]));
+        generator.renderConventions(model, DocsGenerator.DEFAULT_CONVENTIONS_TEMPLATE, output.resolve(DOCUMENTS[2]));
+    }
+
+    private void scan(File root, Pattern pattern, int parallelism, MetricsDocGenerator generator) throws IOException {
+        JavaSourceSearchHelper searchHelper = createSearchHelper(root, pattern, parallelism);
+        new JavaSourceScanner(searchHelper, parallelism).register(generator.createProcessor(searchHelper)).scan();
+    }
+
+    private void scan(File root, Pattern pattern, int parallelism, SpansDocGenerator generator) throws IOException {
+        JavaSourceSearchHelper searchHelper = createSearchHelper(root, pattern, parallelism);
+        new JavaSourceScanner(searchHelper, parallelism).register(generator.createProcessor(searchHelper)).scan();
+    }
+
+    private void scan(File root, Pattern pattern, int parallelism, ObservationConventionsDocGenerator generator)
+            throws IOException {
+        JavaSourceSearchHelper searchHelper = createSearchHelper(root, pattern, parallelism);
+        new JavaSourceScanner(searchHelper, parallelism).register(generator.createProcessor(searchHelper)).scan();
+    }
+
+    private JavaSourceSearchHelper createSearchHelper(File root, Pattern pattern, int parallelism) throws IOException {
+        Files.createDirectories(Paths.get(".", "build/parallel/serial"));
+        Files.createDirectories(Paths.get(".", "build/parallel/parallel"));
+        return JavaSourceSearchHelper.builder(root.toPath(), pattern).parallelism(parallelism).build();
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ProjectWatcher}.
+ */
+class ProjectWatcherTests {
+
+    // generous for the polling watch service of some platforms
+    private static final long TIMEOUT_SECONDS = 30;
+
+    @TempDir
+    Path root;
+
+    @Test
+    void reportIncludedJavaFiles() throws Exception {
+        Path docs = Files.createDirectories(this.root.resolve("docs"));
+        try (ProjectWatcher watcher = new ProjectWatcher(this.root, Pattern.compile(".*/docs/.*"))) {
+            write(docs.resolve("Included.java"));
+            write(docs.resolve("notes.txt"));
+            write(this.root.resolve("Excluded.java"));
+
+            Set<Path> changes = watcher.awaitChanges(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+            assertThat(changes).containsExactly(docs.resolve("Included.java"));
+        }
+    }
+
+    @Test
+    void reportJavaFilesInNewDirectories() throws Exception {
+        try (ProjectWatcher watcher = new ProjectWatcher(this.root, Pattern.compile(".*"))) {
+            Path nested = Files.createDirectories(this.root.resolve("foo/bar"));
+            write(nested.resolve("Foo.java"));
+
+            assertThat(awaitChanges(watcher, nested.resolve("Foo.java"))).contains(nested.resolve("Foo.java"));
+
+            // the new directory is watched
+            write(nested.resolve("Bar.java"));
+            assertThat(watcher.awaitChanges(TIMEOUT_SECONDS, TimeUnit.SECONDS)).contains(nested.resolve("Bar.java"));
+        }
+    }
+
+    @Test
+    void skipHiddenAndBuildOutputDirectories() throws Exception {
+        Path git = Files.createDirectories(this.root.resolve(".git"));
+        Path build = Files.createDirectories(this.root.resolve("module/build/generated"));
+        Path src = Files.createDirectories(this.root.resolve("module/src"));
+        try (ProjectWatcher watcher = new ProjectWatcher(this.root, Pattern.compile(".*"))) {
+            write(git.resolve("Git.java"));
+            write(build.resolve("Generated.java"));
+            Path target = Files.createDirectories(this.root.resolve("module/target"));
+            write(target.resolve("Compiled.java"));
+            write(src.resolve("Foo.java"));
+
+            assertThat(awaitChanges(watcher, src.resolve("Foo.java"))).containsExactly(src.resolve("Foo.java"));
+        }
+    }
+
+    @Test
+    void ignoreOtherFiles() throws Exception {
+        try (ProjectWatcher watcher = new ProjectWatcher(this.root, Pattern.compile(".*"))) {
+            write(this.root.resolve("_metrics.adoc"));
+
+            assertThat(watcher.awaitChanges(ProjectWatcher.QUIET_PERIOD_MILLIS * 5, TimeUnit.MILLISECONDS)).isEmpty();
+        }
+    }
+
+    // the events of a new directory and of its files may not arrive in one burst
+    private static Set<Path> awaitChanges(ProjectWatcher watcher, Path expected) throws Exception {
+        Set<Path> changes = watcher.awaitChanges(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        Set<Path> more = changes;
+        while (!changes.contains(expected) && !more.isEmpty()) {
+            more = watcher.awaitChanges(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            changes.addAll(more);
+        }
+        return changes;
+    }
+
+    private static void write(Path path) throws IOException {
+        Files.write(path, "class Foo {}".getBytes(StandardCharsets.UTF_8));
+    }
+
+}
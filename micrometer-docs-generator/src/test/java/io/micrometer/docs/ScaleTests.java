@@ -0,0 +1,137 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.docs.fixtures.SyntheticSourceTree;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Scale tests for {@link DocsGeneratorCommand} with a {@link SyntheticSourceTree}.
+ * <p>
+ * The command runs in a separate JVM. Its maximum heap size is the memory budget, and the
+ * time to wait for it is the time budget. The budgets are generous so that only
+ * significant regressions fail.
+ */
+class ScaleTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void generateMediumTree() throws Exception {
+        SyntheticSourceTree tree = SyntheticSourceTree.builder()
+            .packages(20)
+            .metersPerPackage(5)
+            .observationsPerPackage(5)
+            .nestingDepth(3)
+            .conventionDepth(3)
+            .build();
+        generateWithinBudget(tree, Duration.ofMinutes(2), "256m", 1);
+    }
+
+    @Test
+    void generateMediumTreeWithSingleTypeImports() throws Exception {
+        SyntheticSourceTree tree = SyntheticSourceTree.builder()
+            .packages(20)
+            .metersPerPackage(5)
+            .observationsPerPackage(5)
+            .wildcardImports(false)
+            .conventionDepth(1)
+            .build();
+        generateWithinBudget(tree, Duration.ofMinutes(2), "256m", 1);
+    }
+
+    @Test
+    @Tag("scale")
+    void generateLargeTree() throws Exception {
+        // 10,000 observation documentation enums with their conventions
+        SyntheticSourceTree tree = SyntheticSourceTree.builder()
+            .packages(500)
+            .metersPerPackage(2)
+            .observationsPerPackage(20)
+            .nestingDepth(4)
+            .conventionDepth(5)
+            .build();
+        generateWithinBudget(tree, Duration.ofMinutes(20), "1g", 4);
+    }
+
+    private void generateWithinBudget(SyntheticSourceTree tree, Duration timeBudget, String maxHeapSize,
+            int parallelism) throws IOException, InterruptedException {
+        Path sources = this.dir.resolve("sources");
+        Path output = this.dir.resolve("output");
+        Path log = this.dir.resolve("generator.log");
+        tree.generate(sources);
+        Files.createDirectories(output);
+
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Xmx" + maxHeapSize);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(DocsGeneratorCommand.class.getName());
+        command.addAll(Arrays.asList(sources.toString(), ".*", output.toString()));
+        command.add("--parallelism=" + parallelism);
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        boolean finished = process.waitFor(timeBudget.toMillis(), TimeUnit.MILLISECONDS);
+        if (!finished) {
+            process.destroyForcibly().waitFor();
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(finished).as("Generation of %d documentation enums did not finish within %s",
+                tree.getDocumentationCount(), timeBudget)
+            .isTrue();
+        assertThat(process.exitValue()).as("Generation failed with -Xmx%s in %s:%n%s", maxHeapSize, elapsed,
+                read(log))
+            .isZero();
+
+        int lastPackage = tree.getPackages() - 1;
+        int lastMeter = tree.getMetersPerPackage() - 1;
+        int lastObservation = tree.getObservationsPerPackage() - 1;
+        String metrics = read(output.resolve("_metrics.adoc"));
+        assertThat(metrics).contains(SyntheticSourceTree.meterNamePrefix(lastPackage, lastMeter) + ".requests")
+            .contains(SyntheticSourceTree.meterNamePrefix(lastPackage, lastMeter) + ".status")
+            .contains(SyntheticSourceTree.observationNamePrefix(lastPackage, lastObservation) + ".calls");
+        String spans = read(output.resolve("_spans.adoc"));
+        assertThat(spans).contains(SyntheticSourceTree.observationNamePrefix(lastPackage, lastObservation) + ".id");
+        String conventions = read(output.resolve("_conventions.adoc"));
+        assertThat(conventions).contains(SyntheticSourceTree.packageName(lastPackage) + "."
+                + SyntheticSourceTree.conventionClassName(lastObservation));
+    }
+
+    private static String read(Path path) throws IOException {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs.commons;
+
+import java.util.List;
+
+import io.micrometer.docs.commons.JavaDeclarationReader.TypeDeclaration;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link JavaDeclarationReader}.
+ */
+class JavaDeclarationReaderTests {
+
+    @Test
+    void readMemberTypes() {
+        String source = String.join("\n",
+                "package io.micrometer.foo;",
+                "import java.util.List;",
+                "import static java.util.Collections.emptyList;",
+                "/** Javadoc with class Javadoc {} */",
+                "public class Foo<T extends Comparable<T>> extends Base<List<T>>",
+                "        implements Bar, io.micrometer.Baz<T> {",
+                "    private static final String TEXT = \"class Text { \\\" }\";",
+                "    private static final char BRACE = '{';",
+                "    private final Class<?> type = Foo.class;",
+                "    static { Runnable r = () -> { class Local {} }; }",
+                "    void method() { Object o = new Object() { class Anonymous {} }; }",
+                "    // class Comment {",
+                "    enum Kind implements ObservationDocumentation {",
+                "        FOO { @Override public String getName() { return \"}\"; } }, BAR;",
+                "        interface InEnum {}",
+                "    }",
+                "    @interface Annotation { Class<?> value() default Foo.class; }",
+                "    record Point(int x, int y) implements Comparable<Point> {",
+                "        public int compareTo(Point other) { return 0; }",
+                "    }",
+                "}");
+
+        List<TypeDeclaration> types = JavaDeclarationReader.read(source);
+
+        assertThat(types).extracting((type) -> type.qualifiedName)
+            .containsExactly("io.micrometer.foo.Foo", "io.micrometer.foo.Foo$Kind",
+                    "io.micrometer.foo.Foo$Kind$InEnum", "io.micrometer.foo.Foo$Annotation",
+                    "io.micrometer.foo.Foo$Point");
+        assertThat(types).extracting((type) -> type.canonicalName)
+            .containsExactly("io.micrometer.foo.Foo", "io.micrometer.foo.Foo.Kind",
+                    "io.micrometer.foo.Foo.Kind.InEnum", "io.micrometer.foo.Foo.Annotation",
+                    "io.micrometer.foo.Foo.Point");
+        assertThat(types).extracting((type) -> type.simpleName)
+            .containsExactly("Foo", "Kind", "InEnum", "Annotation", "Point");
+        assertThat(types).extracting((type) -> type.isEnum).containsExactly(false, true, false, false, false);
+        assertThat(types.get(0).superTypes).containsExactly("Base", "Bar", "Baz");
+        assertThat(types.get(1).superTypes).containsExactly("ObservationDocumentation");
+        assertThat(types.get(4).superTypes).containsExactly("Comparable");
+    }
+
+    @Test
+    void readTextBlock() {
+        String source = "package io.micrometer; class Foo { String text = \"\"\"\n  } class Bar {\n  \"\"\"; }";
+
+        assertThat(JavaDeclarationReader.read(source)).extracting((type) -> type.qualifiedName)
+            .containsExactly("io.micrometer.Foo");
+    }
+
+    @Test
+    void returnNullForUnsupportedSource() {
+        assertThat(JavaDeclarationReader.read("class Foo {}")).isNull();
+        assertThat(JavaDeclarationReader.read("package io.micrometer; class Foo {} class Bar {}")).isNull();
+        assertThat(JavaDeclarationReader.read("package io.micrometer; class Foo { \\u007d")).isNull();
+        assertThat(JavaDeclarationReader.read("package io.micrometer; class Foo implements @A Bar {}")).isNull();
+        assertThat(JavaDeclarationReader.read("package io.micrometer; class Foo { void foo() {")).isNull();
+        assertThat(JavaDeclarationReader.read("package io.micrometer; class Foo { /* }")).isNull();
+    }
+
+}
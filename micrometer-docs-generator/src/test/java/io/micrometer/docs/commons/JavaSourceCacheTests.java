@@ -0,0 +1,140 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs.commons;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+import io.micrometer.docs.commons.search.search_test.Container;
+import org.jboss.forge.roaster.model.source.JavaSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link JavaSourceCache}.
+ */
+class JavaSourceCacheTests {
+
+    private static final Path SEARCH_TEST = Paths.get("src/test/java/io/micrometer/docs/commons/search/search_test");
+
+    @Test
+    void cachedOnRepeatedSearch() {
+        JavaSourceCache cache = new JavaSourceCache(8);
+        JavaSourceSearchHelper helper = JavaSourceSearchHelper.create(SEARCH_TEST, Pattern.compile(".*"), cache);
+
+        JavaSource<?> first = helper.search(Container.class.getName());
+        JavaSource<?> second = helper.search(Container.class.getName());
+        JavaSource<?> nested = helper.search(Container.Nest1.class.getName());
+
+        assertThat(second).isSameAs(first);
+        assertThat(nested).isNotNull().extracting(JavaSource::getQualifiedName)
+            .isEqualTo(Container.Nest1.class.getName());
+        assertThat(cache.getMissCount()).isEqualTo(1);
+        assertThat(cache.getHitCount()).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void evictLeastRecentlyUsed() {
+        JavaSourceCache cache = new JavaSourceCache(2);
+        Path container = SEARCH_TEST.resolve("Container.java");
+        Path searchEnum = SEARCH_TEST.resolve("MySearchEnum.java");
+        Path searchInterface = SEARCH_TEST.resolve("MySearchInterface.java");
+
+        cache.get(container);
+        cache.get(searchEnum);
+        cache.get(container); // searchEnum becomes the eldest
+        cache.get(searchInterface);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+
+        cache.get(container);
+        assertThat(cache.getHitCount()).isEqualTo(2);
+        cache.get(searchEnum);
+        assertThat(cache.getMissCount()).isEqualTo(4);
+    }
+
+    @Test
+    void reparseModifiedFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("Foo.java");
+        Files.write(file, "class Foo {}".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1_000_000));
+
+        JavaSourceCache cache = new JavaSourceCache();
+        assertThat(cache.get(file).getName()).isEqualTo("Foo");
+
+        Files.write(file, "class Bar {}".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(2_000_000));
+        assertThat(cache.get(file).getName()).isEqualTo("Bar");
+        assertThat(cache.getMissCount()).isEqualTo(2);
+        assertThat(cache.getHitCount()).isZero();
+    }
+
+    @Test
+    void shareSourcesBetweenThreads() throws Exception {
+        JavaSourceCache cache = new JavaSourceCache(8);
+        JavaSourceSearchHelper helper = JavaSourceSearchHelper.create(SEARCH_TEST, Pattern.compile(".*"), cache);
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<JavaSource<?>>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return helper.search(Container.class.getName());
+                }));
+            }
+            start.countDown();
+
+            JavaSource<?> first = results.get(0).get();
+            for (Future<JavaSource<?>> result : results) {
+                assertThat(result.get()).isNotNull().isSameAs(first);
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.getHitCount() + cache.getMissCount()).isEqualTo(threads);
+    }
+
+    @Test
+    void disabled() {
+        JavaSourceCache cache = new JavaSourceCache(0);
+        Path container = SEARCH_TEST.resolve("Container.java");
+
+        assertThat(cache.get(container)).isNotSameAs(cache.get(container));
+        assertThat(cache.size()).isZero();
+        assertThat(cache.getMissCount()).isEqualTo(2);
+    }
+
+}
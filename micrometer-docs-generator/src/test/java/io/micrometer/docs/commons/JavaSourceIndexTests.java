@@ -0,0 +1,162 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs.commons;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link JavaSourceIndex}.
+ */
+class JavaSourceIndexTests {
+
+    @TempDir
+    Path root;
+
+    @TempDir
+    Path cacheDir;
+
+    @Test
+    void saveAndLoad() throws IOException {
+        Path foo = write("io/micrometer/Foo.java", "package io.micrometer; class Foo { static class Nested {} }");
+        Path bar = write("io/micrometer/Bar.java", "package io.micrometer; class Bar {}");
+        Path indexFile = this.cacheDir.resolve("index.txt");
+
+        JavaSourceIndex index = JavaSourceIndex.empty(this.root).update(Arrays.asList(foo, bar), 1);
+        index.save(indexFile);
+        JavaSourceIndex loaded = JavaSourceIndex.load(indexFile, this.root);
+
+        assertThat(loaded.size()).isEqualTo(2);
+        assertThat(loaded.toPathInfoMap().keySet()).containsExactlyInAnyOrder("io.micrometer.Foo",
+                "io.micrometer.Foo$Nested", "io.micrometer.Bar");
+        assertThat(loaded.toPathInfoMap().get("io.micrometer.Foo$Nested").path).isEqualTo(foo);
+    }
+
+    @Test
+    void reuseUnchangedFiles() throws IOException {
+        Path foo = write("io/micrometer/Foo.java", "package io.micrometer; class Foo {}");
+        Path indexFile = this.cacheDir.resolve("index.txt");
+        JavaSourceIndex.empty(this.root).update(Arrays.asList(foo), 1).save(indexFile);
+
+        // rename the class only in the index to detect whether the file was parsed again
+        String content = new String(Files.readAllBytes(indexFile), StandardCharsets.UTF_8);
+        Files.write(indexFile, content.replace("Foo\t", "Renamed\t").getBytes(StandardCharsets.UTF_8));
+
+        JavaSourceIndex index = JavaSourceIndex.load(indexFile, this.root).update(Arrays.asList(foo), 1);
+        assertThat(index.toPathInfoMap().keySet()).containsExactly("io.micrometer.Renamed");
+    }
+
+    @Test
+    void reuseFilesWithSameContentHash() throws IOException {
+        Path foo = write("io/micrometer/Foo.java", "package io.micrometer; class Foo {}");
+        Path indexFile = this.cacheDir.resolve("index.txt");
+        JavaSourceIndex.empty(this.root).update(Arrays.asList(foo), 1).save(indexFile);
+        String content = new String(Files.readAllBytes(indexFile), StandardCharsets.UTF_8);
+        Files.write(indexFile, content.replace("Foo\t", "Renamed\t").getBytes(StandardCharsets.UTF_8));
+
+        // e.g. a fresh checkout: modification time changes but the content is the same
+        Files.setLastModifiedTime(foo, FileTime.fromMillis(Files.getLastModifiedTime(foo).toMillis() + 10_000));
+
+        JavaSourceIndex index = JavaSourceIndex.load(indexFile, this.root).update(Arrays.asList(foo), 1);
+        assertThat(index.toPathInfoMap().keySet()).containsExactly("io.micrometer.Renamed");
+    }
+
+    @Test
+    void parseChangedAddedAndDropDeletedFiles() throws IOException {
+        Path foo = write("io/micrometer/Foo.java", "package io.micrometer; class Foo {}");
+        Path bar = write("io/micrometer/Bar.java", "package io.micrometer; class Bar {}");
+        Path indexFile = this.cacheDir.resolve("index.txt");
+        JavaSourceIndex.empty(this.root).update(Arrays.asList(foo, bar), 1).save(indexFile);
+
+        write("io/micrometer/Foo.java", "package io.micrometer; class Foo { class Added {} }");
+        Files.setLastModifiedTime(foo, FileTime.fromMillis(Files.getLastModifiedTime(foo).toMillis() + 10_000));
+        Files.delete(bar);
+        Path baz = write("io/micrometer/Baz.java", "package io.micrometer; class Baz {}");
+
+        List<Path> paths = Arrays.asList(foo, baz);
+        JavaSourceIndex index = JavaSourceIndex.load(indexFile, this.root).update(paths, 2);
+        assertThat(index.toPathInfoMap().keySet()).containsExactlyInAnyOrder("io.micrometer.Foo",
+                "io.micrometer.Foo$Added", "io.micrometer.Baz");
+    }
+
+    @Test
+    void ignoreIndexOfOtherFormatVersion() throws IOException {
+        Path foo = write("io/micrometer/Foo.java", "package io.micrometer; class Foo {}");
+        Path indexFile = this.cacheDir.resolve("index.txt");
+        JavaSourceIndex.empty(this.root).update(Arrays.asList(foo), 1).save(indexFile);
+        String content = new String(Files.readAllBytes(indexFile), StandardCharsets.UTF_8);
+        Files.write(indexFile, content.replace("version\t" + JavaSourceIndex.FORMAT_VERSION, "version\t0")
+            .getBytes(StandardCharsets.UTF_8));
+
+        assertThat(JavaSourceIndex.load(indexFile, this.root).size()).isZero();
+    }
+
+    @Test
+    void candidatePaths() throws IOException {
+        Path docs = write("io/micrometer/Docs.java",
+                "package io.micrometer; enum Docs implements ObservationDocumentation { FOO }");
+        Path tags = write("io/micrometer/Tags.java", "package io.micrometer; enum Tags implements KeyName { FOO }");
+        Path base = write("io/micrometer/Base.java",
+                "package io.micrometer; abstract class Base implements ObservationConvention<Context> {}");
+        Path sub = write("io/micrometer/Sub.java", "package io.micrometer; class Sub extends Base {}");
+        Path holder = write("io/micrometer/Holder.java",
+                "package io.micrometer; class Holder { static class Nested extends Sub {} }");
+        Path holderSub = write("io/micrometer/HolderSub.java",
+                "package io.micrometer; class HolderSub extends Holder {}");
+        Path other = write("io/micrometer/Other.java", "package io.micrometer; class Other extends Tags {}");
+
+        JavaSourceIndex index = JavaSourceIndex.empty(this.root)
+            .update(Arrays.asList(docs, tags, base, sub, holder, holderSub, other), 1);
+
+        assertThat(index.getCandidatePaths()).containsExactly(docs, base, sub, holder, holderSub);
+    }
+
+    @Test
+    void searchHelperWithCacheDir() throws IOException {
+        write("io/micrometer/Foo.java", "package io.micrometer; class Foo {}");
+
+        JavaSourceSearchHelper first = JavaSourceSearchHelper.builder(this.root, Pattern.compile(".*"))
+            .cacheDir(this.cacheDir)
+            .build();
+        JavaSourceSearchHelper second = JavaSourceSearchHelper.builder(this.root, Pattern.compile(".*"))
+            .cacheDir(this.cacheDir)
+            .build();
+
+        assertThat(this.cacheDir.resolve(JavaSourceSearchHelper.Builder.INDEX_FILE_NAME)).exists();
+        assertThat(first.search("io.micrometer.Foo")).isNotNull();
+        assertThat(second.search("io.micrometer.Foo")).isNotNull();
+    }
+
+    private Path write(String relativePath, String content) throws IOException {
+        Path path = this.root.resolve(relativePath);
+        Files.createDirectories(path.getParent());
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+        return path;
+    }
+
+}
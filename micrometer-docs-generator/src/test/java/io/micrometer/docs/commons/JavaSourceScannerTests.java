@@ -0,0 +1,142 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs.commons;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.jboss.forge.roaster.model.source.JavaSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link JavaSourceScanner}.
+ */
+class JavaSourceScannerTests {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void scan() {
+        Path path = Paths.get("src/test/java/io/micrometer/docs/commons/search/test1");
+        JavaSourceSearchHelper helper = JavaSourceSearchHelper.create(path, Pattern.compile(".*"));
+
+        RecordingProcessor first = new RecordingProcessor();
+        RecordingProcessor second = new RecordingProcessor();
+        new JavaSourceScanner(helper).register(first).register(second).scan();
+
+        assertThat(first.names).containsExactlyInAnyOrder("ReferenceSample", "InSamePackage", "InDifferentPackage");
+        assertThat(first.completed).isEqualTo(1);
+
+        // both processors receive the same parsed instances
+        assertThat(second.sources).containsExactlyElementsOf(first.sources);
+        assertThat(second.completed).isEqualTo(1);
+    }
+
+    @Test
+    void parallelScanKeepsOrder() {
+        Path path = Paths.get("src/test/java/io/micrometer/docs");
+        JavaSourceSearchHelper helper = JavaSourceSearchHelper.create(path, Pattern.compile(".*"));
+
+        RecordingProcessor serial = new RecordingProcessor();
+        new JavaSourceScanner(helper).register(serial).scan();
+        RecordingProcessor parallel = new RecordingProcessor();
+        new JavaSourceScanner(helper, 4).register(parallel).scan();
+
+        assertThat(parallel.names).containsExactlyElementsOf(serial.names);
+        assertThat(parallel.completed).isEqualTo(1);
+    }
+
+    @Test
+    void scanReusesParsedSources() {
+        Path path = Paths.get("src/test/java/io/micrometer/docs/commons/search/test1");
+        JavaSourceCache cache = new JavaSourceCache(16);
+        JavaSourceSearchHelper helper = JavaSourceSearchHelper.create(path, Pattern.compile(".*"), cache);
+        assertThat(helper.getCandidatePaths()).isNotEmpty();
+
+        RecordingProcessor first = new RecordingProcessor();
+        new JavaSourceScanner(helper).register(first).scan();
+        long misses = cache.getMissCount();
+        assertThat(misses).isGreaterThanOrEqualTo(helper.getCandidatePaths().size());
+
+        RecordingProcessor second = new RecordingProcessor();
+        new JavaSourceScanner(helper, 4).register(second).scan();
+        assertThat(cache.getMissCount()).isEqualTo(misses);
+        assertThat(second.sources).containsExactlyElementsOf(first.sources);
+
+        // lookups share the scanned instances
+        JavaSource<?> scanned = first.sources.get(0);
+        assertThat(helper.search(scanned.getQualifiedName())).isSameAs(scanned);
+    }
+
+    @Test
+    void scanSkipsFilesWithoutDocumentation() throws IOException {
+        Path docs = write("io/micrometer/Docs.java",
+                "package io.micrometer; enum Docs implements ObservationDocumentation { FOO }");
+        write("io/micrometer/Tags.java", "package io.micrometer; enum Tags implements KeyName { FOO }");
+        write("io/micrometer/Plain.java", "package io.micrometer; class Plain { void foo() {} }");
+        JavaSourceCache cache = new JavaSourceCache(16);
+        JavaSourceSearchHelper helper = JavaSourceSearchHelper.create(this.root, Pattern.compile(".*"), cache);
+
+        RecordingProcessor processor = new RecordingProcessor();
+        new JavaSourceScanner(helper).register(processor).scan();
+
+        assertThat(helper.getSourcePaths()).hasSize(3);
+        assertThat(helper.getCandidatePaths()).containsExactly(docs);
+        assertThat(processor.names).containsExactly("Docs");
+        // the other files are not parsed unless they are looked up
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    private Path write(String relativePath, String content) throws IOException {
+        Path path = this.root.resolve(relativePath);
+        Files.createDirectories(path.getParent());
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+        return path;
+    }
+
+    static class RecordingProcessor implements JavaSourceProcessor {
+
+        final List<JavaSource<?>> sources = new ArrayList<>();
+
+        final List<String> names = new ArrayList<>();
+
+        int completed;
+
+        @Override
+        public void process(JavaSource<?> javaSource) {
+            this.sources.add(javaSource);
+            this.names.add(javaSource.getName());
+        }
+
+        @Override
+        public void complete() {
+            this.completed++;
+        }
+
+    }
+
+}
@@ -16,11 +16,22 @@
 
 package io.micrometer.docs.commons;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
+import io.micrometer.common.docs.KeyName;
 import io.micrometer.docs.RoasterTestUtils;
 import io.micrometer.docs.commons.search.convention.test1.SimpleObservationConvention;
 import io.micrometer.docs.commons.search.convention.test2.NestedHolder;
@@ -43,6 +54,7 @@ import org.jboss.forge.roaster.model.source.JavaSource;
 import org.jboss.forge.roaster.model.source.MethodSource;
 import org.junit.jupiter.api.Named;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.ValueSource;
@@ -69,6 +81,33 @@ class JavaSourceSearchHelperTests {
         assertThat(result).isNotNull().extracting(JavaSource::getQualifiedName).isEqualTo(qualifiedName);
     }
 
+    @ParameterizedTest
+    @ValueSource(classes = { Container.class, Container.Nest1.class, Container.Nest1.Nest2.class, MySearchEnum.class,
+            MySearchEnum.NestedClass.class, MySearchEnum.NestedInterface.class, MySearchEnum.NestedEnum.class,
+            MySearchInterface.class, MySearchInterface.NestedInterface.class, MySearchInterface.NestedEnum.class })
+    void searchWithParallelIndexing(Class<?> clazz) {
+        Path path = Paths.get("src/test/java/io/micrometer/docs/commons/search/search_test");
+        JavaSourceSearchHelper serial = JavaSourceSearchHelper.create(path, Pattern.compile(".*"));
+        JavaSourceSearchHelper helper = JavaSourceSearchHelper.builder(path, Pattern.compile(".*"))
+            .parallelism(4)
+            .build();
+
+        String qualifiedName = clazz.getName();
+        JavaSource<?> result = helper.search(qualifiedName);
+        assertThat(result).isNotNull().extracting(JavaSource::getQualifiedName).isEqualTo(qualifiedName);
+        assertThat(helper.getSourcePaths()).containsExactlyElementsOf(serial.getSourcePaths());
+    }
+
+    @Test
+    void collectSourcePathsWithoutIndexing() throws IOException {
+        Path path = Paths.get("src/test/java/io/micrometer/docs/commons/search");
+        Pattern pattern = Pattern.compile(".*/search_test/.*");
+        JavaSourceSearchHelper helper = JavaSourceSearchHelper.create(path, pattern);
+
+        assertThat(JavaSourceSearchHelper.collectSourcePaths(path, pattern)).isNotEmpty()
+            .containsExactlyElementsOf(helper.getSourcePaths());
+    }
+
     @ParameterizedTest
     @org.junit.jupiter.params.provider.MethodSource
     void searchReferencingClass(String className, String expectedSimpleName) {
@@ -81,6 +120,31 @@ class JavaSourceSearchHelperTests {
         assertThat(result.getName()).isEqualTo(expectedSimpleName);
     }
 
+    @Test
+    void searchReferencingClassWithinPackage(@TempDir Path root) throws Exception {
+        write(root, "foo/Foo.java", "package foo; import bar.*; class Foo {}");
+        write(root, "foo/Sibling.java", "package foo; class Sibling { static class Nested {} }");
+        write(root, "bar/Bar.java", "package bar; public class Bar {}");
+        write(root, "baz/Baz.java", "package baz; public class Baz {}");
+        JavaSourceSearchHelper helper = JavaSourceSearchHelper.create(root, Pattern.compile(".*"));
+        JavaSource<?> enclosingSource = helper.search("foo.Foo");
+        assertThat(enclosingSource).isNotNull();
+
+        // wildcard import
+        assertThat(helper.searchReferencingClass(enclosingSource, "Bar")).isNotNull()
+            .extracting(JavaSource::getQualifiedName)
+            .isEqualTo("bar.Bar");
+        // same package
+        assertThat(helper.searchReferencingClass(enclosingSource, "Sibling")).isNotNull()
+            .extracting(JavaSource::getQualifiedName)
+            .isEqualTo("foo.Sibling");
+        assertThat(helper.searchReferencingClass(enclosingSource, "Sibling$Nested")).isNotNull()
+            .extracting(JavaSource::getQualifiedName)
+            .isEqualTo("foo.Sibling$Nested");
+        // neither imported nor in the same package
+        assertThat(helper.searchReferencingClass(enclosingSource, "Baz")).isNull();
+    }
+
     @Test
     void searchReferencingClassInDefaultPackage() throws Exception {
         Path path = Paths.get("src/test/java");
@@ -105,6 +169,53 @@ class JavaSourceSearchHelperTests {
         assertThat(result.getOrigin().getName()).isEqualTo(expectedEnclosingClassName);
     }
 
+    @Test
+    void searchReferencingClassWithSharedImports(@TempDir Path root) throws Exception {
+        write(root, "foo/First.java", "package foo; import bar.*; class First {}");
+        write(root, "foo/Second.java", "package foo; import bar.*; class Second {}");
+        write(root, "foo/Third.java", "package foo; import baz.*; class Third {}");
+        write(root, "bar/Bar.java", "package bar; public class Bar {}");
+        write(root, "baz/Bar.java", "package baz; public class Bar {}");
+        JavaSourceSearchHelper helper = JavaSourceSearchHelper.create(root, Pattern.compile(".*"));
+        JavaSource<?> first = helper.search("foo.First");
+        JavaSource<?> second = helper.search("foo.Second");
+        JavaSource<?> third = helper.search("foo.Third");
+
+        for (int i = 0; i < 2; i++) {
+            assertThat(helper.searchReferencingClass(first, "Bar")).isNotNull()
+                .extracting(JavaSource::getQualifiedName)
+                .isEqualTo("bar.Bar");
+            assertThat(helper.searchReferencingClass(second, "Bar")).isNotNull()
+                .extracting(JavaSource::getQualifiedName)
+                .isEqualTo("bar.Bar");
+            assertThat(helper.searchReferencingClass(third, "Bar")).isNotNull()
+                .extracting(JavaSource::getQualifiedName)
+                .isEqualTo("baz.Bar");
+            assertThat(helper.searchReferencingClass(first, "Missing")).isNull();
+            assertThat(helper.searchReferencingClass(third, "Missing")).isNull();
+        }
+    }
+
+    @Test
+    void searchMethodSourceMemoizesHierarchy() {
+        Path path = Paths.get("src/test/java/io/micrometer/docs/commons/search/test2");
+        JavaSourceCache sourceCache = new JavaSourceCache();
+        JavaSourceSearchHelper helper = JavaSourceSearchHelper.create(path, Pattern.compile(".*"), sourceCache);
+        JavaSource<?> enclosingSource = helper.search(MethodSearchSample.class.getName());
+        assertThat(enclosingSource).isNotNull();
+
+        assertThat(helper.searchMethodSource(enclosingSource, "fromFooDefault")).isNotNull();
+        assertThat(helper.searchMethodSource(enclosingSource, "notDeclared")).isNull();
+        long lookups = sourceCache.getHitCount() + sourceCache.getMissCount();
+
+        // a hit resolves the declaring class only and a miss resolves nothing
+        MethodSource<?> result = helper.searchMethodSource(enclosingSource, "fromFooDefault");
+        assertThat(result).isNotNull();
+        assertThat(result.getOrigin().getName()).isEqualTo("FooInterface");
+        assertThat(helper.searchMethodSource(enclosingSource, "notDeclared")).isNull();
+        assertThat(sourceCache.getHitCount() + sourceCache.getMissCount()).isEqualTo(lookups + 1);
+    }
+
     @Test
     void searchMethodSourceInDefaultPackage() throws Exception {
         Path path = Paths.get("src/test/java");
@@ -154,6 +265,114 @@ class JavaSourceSearchHelperTests {
         assertThat(result).isEqualTo(expectedName);
     }
 
+    @Test
+    void searchObservationConventionInterfaceNameWithCommonAncestors(@TempDir Path root) throws Exception {
+        write(root, "foo/Base.java", "package foo; import io.micrometer.observation.Observation; "
+                + "import io.micrometer.observation.ObservationConvention; "
+                + "abstract class Base implements ObservationConvention<Observation.Context> {}");
+        write(root, "foo/First.java", "package foo; class First extends Base {}");
+        write(root, "foo/Second.java", "package foo; class Second extends Base {}");
+        write(root, "foo/Outer.java", "package foo; class Outer extends Base { static class Inner extends Outer {} }");
+        write(root, "foo/Plain.java", "package foo; class Plain { static class Inner extends Plain {} }");
+        JavaSourceCache sourceCache = new JavaSourceCache();
+        JavaSourceSearchHelper helper = JavaSourceSearchHelper.create(root, Pattern.compile(".*"), sourceCache);
+        String expected = "io.micrometer.observation.ObservationConvention<Observation.Context>";
+
+        JavaSource<?> first = helper.search("foo.First");
+        JavaSource<?> second = helper.search("foo.Second");
+        JavaSource<?> inner = helper.search("foo.Outer$Inner");
+        JavaSource<?> outer = helper.search("foo.Outer");
+        JavaSource<?> plainInner = helper.search("foo.Plain$Inner");
+        JavaSource<?> plain = helper.search("foo.Plain");
+        for (int i = 0; i < 2; i++) {
+            long lookups = sourceCache.getHitCount() + sourceCache.getMissCount();
+            assertThat(helper.searchObservationConventionInterfaceName(first)).isEqualTo(expected);
+            assertThat(helper.searchObservationConventionInterfaceName(second)).isEqualTo(expected);
+            assertThat(helper.searchObservationConventionInterfaceName(inner)).isEqualTo(expected);
+            assertThat(helper.searchObservationConventionInterfaceName(outer)).isEqualTo(expected);
+            assertThat(helper.searchObservationConventionInterfaceName(plainInner)).isNull();
+            assertThat(helper.searchObservationConventionInterfaceName(plain)).isNull();
+            if (i == 1) {
+                // every class was searched before, including the ones without a convention
+                assertThat(sourceCache.getHitCount() + sourceCache.getMissCount()).isEqualTo(lookups);
+            }
+        }
+    }
+
+    @Test
+    void retrieveModelsFromEnumOnce(@TempDir Path root) throws Exception {
+        write(root, "foo/Tags.java", "package foo; import io.micrometer.common.docs.KeyName; "
+                + "enum Tags implements KeyName { FOO { public String asString() { return \"foo\"; } } }");
+        JavaSourceSearchHelper helper = JavaSourceSearchHelper.create(root, Pattern.compile(".*"));
+        JavaEnumSource tags = (JavaEnumSource) helper.search("foo.Tags");
+        assertThat(tags).isNotNull();
+
+        List<KeyNameEntry> keyNames = helper.retrieveModelsFromEnum(tags, KeyNameEnumConstantReader.INSTANCE);
+        assertThat(keyNames).extracting(KeyNameEntry::getName).containsExactly("foo");
+        assertThat(helper.<KeyNameEntry>retrieveModelsFromEnum(tags, KeyNameEnumConstantReader.INSTANCE))
+            .isSameAs(keyNames);
+        assertThat(helper.<EventEntry>retrieveModelsFromEnum(tags, EventEntryForMetricEnumConstantReader.INSTANCE))
+            .isEmpty();
+    }
+
+    @Test
+    void retrieveModelsFromEnumOnceForConcurrentCallers(@TempDir Path root) throws Exception {
+        write(root, "foo/Tags.java", "package foo; import io.micrometer.common.docs.KeyName; "
+                + "enum Tags implements KeyName { FOO { public String asString() { return \"foo\"; } } }");
+        JavaSourceSearchHelper helper = JavaSourceSearchHelper.create(root, Pattern.compile(".*"));
+        JavaEnumSource tags = (JavaEnumSource) helper.search("foo.Tags");
+        assertThat(tags).isNotNull();
+
+        AtomicInteger reads = new AtomicInteger();
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        EntryEnumConstantReader<KeyNameEntry> reader = new EntryEnumConstantReader<KeyNameEntry>() {
+            @Override
+            public Class<?> getRequiredClass() {
+                return KeyName.class;
+            }
+
+            @Override
+            public KeyNameEntry apply(EnumConstantSource enumConstantSource) {
+                reads.incrementAndGet();
+                reading.countDown();
+                try {
+                    release.await();
+                }
+                catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(ex);
+                }
+                return KeyNameEnumConstantReader.INSTANCE.apply(enumConstantSource);
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<KeyNameEntry>>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> helper.<KeyNameEntry>retrieveModelsFromEnum(tags, reader)));
+            }
+            reading.await();
+            release.countDown();
+            List<KeyNameEntry> keyNames = futures.get(0).get();
+            assertThat(keyNames).extracting(KeyNameEntry::getName).containsExactly("foo");
+            for (Future<List<KeyNameEntry>> future : futures) {
+                assertThat(future.get()).isSameAs(keyNames);
+            }
+            assertThat(reads).hasValue(1);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void write(Path root, String relativePath, String content) throws IOException {
+        Path path = root.resolve(relativePath);
+        Files.createDirectories(path.getParent());
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
     static Stream<Arguments> searchReferencingClass() {
         // uses test1
         // @formatter:off
@@ -50,6 +50,20 @@ class ParsingUtilsEnumMethodValueTests {
         assertThat(result).isEqualTo("toString-override");
     }
 
+    @Test
+    void enumMethodValueDoesNotModifyConstantWithoutBody() {
+        JavaClassSource classSource = RoasterTestUtils.readJavaClass(ParsingUtilsEnumMethodValueTests.class);
+        JavaEnumSource enumSource = (JavaEnumSource) classSource.getNestedType(MyEnum.class.getSimpleName());
+        EnumConstantSource baz = enumSource.getEnumConstant("BAZ");
+        String source = enumSource.toString();
+
+        assertThat(ParsingUtils.enumMethodValue(baz, "toString")).isNull();
+        assertThat(ParsingUtils.enumConstantDescription(baz)).isEmpty();
+        assertThat(ParsingUtils.hasBody(baz)).isFalse();
+        assertThat(baz.hasJavaDoc()).isFalse();
+        assertThat(enumSource.toString()).isEqualTo(source);
+    }
+
     enum MyEnum {
 
         FOO {
@@ -60,7 +74,8 @@ class ParsingUtilsEnumMethodValueTests {
             public String toString() {
                 return "toString-override";
             }
-        }
+        },
+        BAZ
 
     }
 
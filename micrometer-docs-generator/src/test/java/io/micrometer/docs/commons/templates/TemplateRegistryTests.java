@@ -0,0 +1,78 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs.commons.templates;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import com.github.jknack.handlebars.Template;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link TemplateRegistry}.
+ */
+class TemplateRegistryTests {
+
+    private static final String NEWLINE = System.lineSeparator();
+
+    @TempDir
+    Path dir;
+
+    TemplateRegistry registry = new TemplateRegistry();
+
+    @Test
+    void compileOncePerContent() throws IOException {
+        String location = write("test.adoc.hbs", "Hello {{name}}");
+        Template template = this.registry.compile(location, this.registry.read(location));
+        assertThat(this.registry.compile(location, this.registry.read(location))).isSameAs(template);
+
+        write("test.adoc.hbs", "Hi {{name}}");
+        Template changed = this.registry.compile(location, this.registry.read(location));
+        assertThat(changed).isNotSameAs(template);
+        assertThat(this.registry.apply(changed, Collections.singletonMap("name", "foo"))).isEqualTo("Hi foo" + NEWLINE);
+    }
+
+    @Test
+    void countAnchorsPerApply() throws IOException {
+        String location = write("anchors.adoc.hbs", "{{anchor name}} {{anchor name}}");
+        Template template = this.registry.compile(location, this.registry.read(location));
+
+        for (int i = 0; i < 2; i++) {
+            assertThat(this.registry.apply(template, Collections.singletonMap("name", "foo")))
+                .isEqualTo("foo foo-1" + NEWLINE);
+        }
+    }
+
+    @Test
+    void readWithSystemLineSeparator() throws IOException {
+        String location = write("lines.adoc.hbs", "a\r\n\r\nb\nc \n\n \n");
+        assertThat(this.registry.read(location)).isEqualTo("a" + NEWLINE + NEWLINE + "b" + NEWLINE + "c " + NEWLINE);
+    }
+
+    private String write(String name, String content) throws IOException {
+        Path path = this.dir.resolve(name);
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+        return path.toString();
+    }
+
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs.commons.templates;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link TemplateRenderer}.
+ */
+class TemplateRendererTests {
+
+    @TempDir
+    Path dir;
+
+    Path template;
+
+    Path output;
+
+    Path cacheDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.template = this.dir.resolve("test.adoc.hbs");
+        Files.write(this.template, "Hello {{name}}".getBytes(StandardCharsets.UTF_8));
+        this.output = this.dir.resolve("out.adoc");
+        this.cacheDir = this.dir.resolve("cache");
+    }
+
+    @Test
+    void skipRenderingWhenModelIsUnchanged() throws IOException {
+        TemplateRenderer renderer = new TemplateRenderer(this.template.toString(), this.output, this.cacheDir);
+
+        assertThat(renderer.render(model("foo"))).isTrue();
+        assertThat(this.output).hasContent("Hello foo");
+        FileTime lastModified = markModified(this.output);
+
+        assertThat(renderer.render(model("foo"))).isFalse();
+        assertThat(Files.getLastModifiedTime(this.output)).isEqualTo(lastModified);
+    }
+
+    @Test
+    void renderWhenModelOrTemplateIsChanged() throws IOException {
+        TemplateRenderer renderer = new TemplateRenderer(this.template.toString(), this.output, this.cacheDir);
+        renderer.render(model("foo"));
+
+        assertThat(renderer.render(model("bar"))).isTrue();
+        assertThat(this.output).hasContent("Hello bar");
+
+        Files.write(this.template, "Hi {{name}}".getBytes(StandardCharsets.UTF_8));
+        assertThat(renderer.render(model("bar"))).isTrue();
+        assertThat(this.output).hasContent("Hi bar");
+    }
+
+    @Test
+    void renderWhenOutputIsDeleted() throws IOException {
+        TemplateRenderer renderer = new TemplateRenderer(this.template.toString(), this.output, this.cacheDir);
+        renderer.render(model("foo"));
+        Files.delete(this.output);
+
+        assertThat(renderer.render(model("foo"))).isTrue();
+        assertThat(this.output).hasContent("Hello foo");
+    }
+
+    @Test
+    void doNotRewriteSameContentWithoutCacheDir() throws IOException {
+        TemplateRenderer renderer = new TemplateRenderer(this.template.toString(), this.output, null);
+
+        assertThat(renderer.render(model("foo"))).isTrue();
+        FileTime lastModified = markModified(this.output);
+
+        assertThat(renderer.render(model("foo"))).isFalse();
+        assertThat(Files.getLastModifiedTime(this.output)).isEqualTo(lastModified);
+        assertThat(renderer.render(model("bar"))).isTrue();
+        assertThat(this.output).hasContent("Hello bar");
+    }
+
+    @Test
+    void renderInUtf8WithoutLeavingTemporaryFiles() throws IOException {
+        TemplateRenderer renderer = new TemplateRenderer(this.template.toString(), this.output, null);
+
+        assertThat(renderer.render(model("caf\u00e9"))).isTrue();
+        assertThat(renderer.render(model("caf\u00e9"))).isFalse();
+        byte[] expected = ("Hello caf\u00e9" + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+        assertThat(this.output).hasBinaryContent(expected);
+        try (Stream<Path> files = Files.list(this.dir)) {
+            assertThat(files).containsExactlyInAnyOrder(this.template, this.output);
+        }
+    }
+
+    @Test
+    void renderWhenPropertyMissingFromToStringIsChanged() throws IOException {
+        Files.write(this.template, "Hello {{item.name}}".getBytes(StandardCharsets.UTF_8));
+        TemplateRenderer renderer = new TemplateRenderer(this.template.toString(), this.output, this.cacheDir);
+        renderer.render(Collections.singletonMap("item", new Item("foo")));
+
+        assertThat(renderer.render(Collections.singletonMap("item", new Item("foo")))).isFalse();
+        assertThat(renderer.render(Collections.singletonMap("item", new Item("bar")))).isTrue();
+        assertThat(this.output).hasContent("Hello bar");
+    }
+
+    private static Map<String, Object> model(String name) {
+        return Collections.singletonMap("name", name);
+    }
+
+    public static class Item {
+
+        private final String name;
+
+        Item(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        @Override
+        public String toString() {
+            return "Item";
+        }
+
+    }
+
+    // move the timestamp to the past to detect a rewrite regardless of the clock
+    // resolution of the file system
+    private static FileTime markModified(Path path) throws IOException {
+        FileTime time = FileTime.fromMillis(Files.getLastModifiedTime(path).toMillis() - 10_000);
+        Files.setLastModifiedTime(path, time);
+        return time;
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs.commons.utils;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link AsciidocUtils}.
+ */
+class AsciidocUtilsTests {
+
+    private static final String NEWLINE = System.lineSeparator();
+
+    // fragments to compose the random input from, including malformed and unknown tags
+    private static final String[] FRAGMENTS = { "<p>", "<p/>", "<br>", "<br/>", "<strong>", "</strong>", "<b>",
+            "</b>", "<i>", "</i>", "<ul>", "<ol>", "</ul>", "</ol>", "<li>", "</li>", "<code>", "</p>", "<P>", "<",
+            ">", "<<", ">>", "< b >", "<a href=\"x\">", "text", "a", " ", "  ", "\t", "\u00A0", "\u2003", "\n",
+            "\r\n", "\r", "\u2028", "\u000B", "*", "_", "{@code x}", "%s" };
+
+    @Test
+    void simpleHtmlToAsciidoc() {
+        assertThat(AsciidocUtils.simpleHtmlToAsciidoc("<p>Hello <b>bold</b> and <i>italic</i><br/>", false))
+            .isEqualTo(NEWLINE + NEWLINE + "Hello *bold* and _italic_ +" + NEWLINE);
+        assertThat(AsciidocUtils.simpleHtmlToAsciidoc("<ol><li>one</li><li>two</li></ol>", true))
+            .isEqualTo(NEWLINE + NEWLINE + " 1. one" + NEWLINE + " 1. two" + NEWLINE);
+        assertThat(AsciidocUtils.simpleHtmlToAsciidoc("<strong>Note</strong> <br>text", false))
+            .isEqualTo(NEWLINE + NEWLINE + "IMPORTANT: Note" + NEWLINE + NEWLINE + "+" + NEWLINE + "text");
+        assertThat(AsciidocUtils.simpleHtmlToAsciidoc("a <unknown attr=\"1\">b</strong>c < d", false))
+            .isEqualTo("a bc < d");
+    }
+
+    @Test
+    void simpleHtmlToAsciidocMatchesRegexConversion() {
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            String line = randomText(random);
+            boolean ordered = random.nextBoolean();
+            assertThat(AsciidocUtils.simpleHtmlToAsciidoc(line, ordered)).as(line)
+                .isEqualTo(regexHtmlToAsciidoc(line, ordered));
+        }
+    }
+
+    @Test
+    void trimLines() {
+        assertThat(AsciidocUtils.trimLines(" a  b \t" + NEWLINE + "\tc\t" + NEWLINE + NEWLINE))
+            .isEqualTo(" a b" + NEWLINE + "\tc");
+        assertThat(AsciidocUtils.trimLines("")).isEmpty();
+        assertThat(AsciidocUtils.trimLines("a\n  ")).isEqualTo("a" + NEWLINE);
+    }
+
+    @Test
+    void trimLinesMatchesRegexConversion() {
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            String text = randomText(random);
+            assertThat(AsciidocUtils.trimLines(text)).as(text).isEqualTo(regexTrimLines(text));
+        }
+    }
+
+    private static String randomText(Random random) {
+        StringBuilder text = new StringBuilder();
+        int count = random.nextInt(12);
+        for (int i = 0; i < count; i++) {
+            text.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+        }
+        return text.toString();
+    }
+
+    // the replacements the conversion used to apply
+    private static String regexHtmlToAsciidoc(String line, boolean assumeLiOrdered) {
+        String paragraphBreak = NEWLINE + NEWLINE;
+        // @formatter:off
+        String asciidoc = line
+                .replaceAll("<p/?>", paragraphBreak)
+                .replaceAll("<br/?>", " +" + NEWLINE)
+                .replaceAll("<strong>", paragraphBreak + "IMPORTANT: ")
+                .replaceAll("</strong>\\h+", paragraphBreak)
+                .replaceAll("</?b>", "*")
+                .replaceAll("</?i>", "_")
+                .replaceAll("<ul>", NEWLINE)
+                .replaceAll("<ol>", NEWLINE)
+                .replaceAll("</[uo]l>", NEWLINE)
+                .replaceAll("<li>", NEWLINE + (assumeLiOrdered ? " 1. " : " - "));
+        // @formatter:on
+        return asciidoc.replaceAll("<[^<>]*>", "");
+    }
+
+    private static String regexTrimLines(String text) {
+        return Pattern.compile("\\R")
+            .splitAsStream(text)
+            .map((line) -> line.replaceAll("\\h\\h+", " ").replaceAll("\\h+$", ""))
+            .collect(Collectors.joining(NEWLINE));
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs.commons.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link ParallelUtils}.
+ */
+class ParallelUtilsTests {
+
+    @Test
+    void resultsInInputOrder() {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add(i);
+        }
+
+        List<String> results = ParallelUtils.mapInOrder(items, 8, "test", i -> {
+            sleep(i % 3);
+            return "item-" + i;
+        });
+
+        assertThat(results).hasSize(100);
+        for (int i = 0; i < 100; i++) {
+            assertThat(results.get(i)).isEqualTo("item-" + i);
+        }
+    }
+
+    @Test
+    void firstFailureInInputOrderIsThrown() {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            items.add(i);
+        }
+
+        // item 2 fails later than item 8 but comes first in the input
+        assertThatThrownBy(() -> ParallelUtils.mapInOrder(items, 10, "test", i -> {
+            if (i == 2) {
+                sleep(50);
+                throw new IllegalStateException("fail-" + i);
+            }
+            if (i == 8) {
+                throw new IllegalStateException("fail-" + i);
+            }
+            return i;
+        })).isInstanceOf(IllegalStateException.class).hasMessage("fail-2");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,575 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.micrometer.docs.fixtures;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Generate a source tree of documented meters, observations and observation conventions
+ * for scale tests and benchmarks.
+ * <p>
+ * Each package {@code io.micrometer.synthetic.p<n>} contains:
+ * <ul>
+ * <li>{@code Tags<X>}: a tag enum shared by the documentation enums of the package</li>
+ * <li>{@code Events<X>}: an {@link io.micrometer.observation.Observation.Event} enum shared
+ * by the observation enums of the package</li>
+ * <li>{@code Meters<X>}: {@link io.micrometer.core.instrument.docs.MeterDocumentation}
+ * enums</li>
+ * <li>{@code Observations<X>}: {@link io.micrometer.observation.docs.ObservationDocumentation}
+ * enums</li>
+ * <li>{@code Observations<X>Convention}: the default convention of each observation
+ * enum, inheriting its name from a hierarchy of convention classes</li>
+ * </ul>
+ * The tag enums of the documentation enums are nested in holder classes. Their key names
+ * are merged with the tags of the same package and the tags of the previous package,
+ * imported with a wildcard or a single type import. The observation enums also reference
+ * the events of the same and of the previous package. This way, generating the documents
+ * exercises nested class, same package and import resolution.
+ * <p>
+ * Some of the shared tag and event constants have no javadoc, so that reading them
+ * concurrently exercises the constants without javadoc too.
+ * <p>
+ * Class names only use letters since enum class names with digits are not recognized in
+ * {@code KeyName.merge(...)}.
+ */
+public final class SyntheticSourceTree {
+
+    public static final String BASE_PACKAGE = "io.micrometer.synthetic";
+
+    private static final String INDENT = "    ";
+
+    private final int packages;
+
+    private final int metersPerPackage;
+
+    private final int observationsPerPackage;
+
+    private final int nestingDepth;
+
+    private final boolean wildcardImports;
+
+    private final int conventionDepth;
+
+    private SyntheticSourceTree(Builder builder) {
+        this.packages = builder.packages;
+        this.metersPerPackage = builder.metersPerPackage;
+        this.observationsPerPackage = builder.observationsPerPackage;
+        this.nestingDepth = builder.nestingDepth;
+        this.wildcardImports = builder.wildcardImports;
+        this.conventionDepth = builder.conventionDepth;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Create the source tree under the given directory.
+     * @param root root directory of the source tree
+     * @return paths of the created java files
+     */
+    public List<Path> generate(Path root) {
+        List<Path> paths = new ArrayList<>();
+        for (int p = 0; p < this.packages; p++) {
+            Path packageDir = root.resolve(packageName(p).replace('.', '/'));
+            paths.add(write(packageDir, tagsClassName(p), tagsSource(p)));
+            paths.add(write(packageDir, eventsClassName(p), eventsSource(p)));
+            for (int m = 0; m < this.metersPerPackage; m++) {
+                paths.add(write(packageDir, metersClassName(m), metersSource(p, m)));
+            }
+            if (this.observationsPerPackage > 0) {
+                for (int level = 0; level < this.conventionDepth - 1; level++) {
+                    paths.add(write(packageDir, conventionLevelClassName(level), conventionLevelSource(p, level)));
+                }
+            }
+            for (int o = 0; o < this.observationsPerPackage; o++) {
+                paths.add(write(packageDir, observationsClassName(o), observationsSource(p, o)));
+                paths.add(write(packageDir, conventionClassName(o), conventionSource(p, o)));
+            }
+        }
+        return paths;
+    }
+
+    public int getPackages() {
+        return this.packages;
+    }
+
+    public int getMetersPerPackage() {
+        return this.metersPerPackage;
+    }
+
+    public int getObservationsPerPackage() {
+        return this.observationsPerPackage;
+    }
+
+    /**
+     * Return the number of meter and observation documentation enums in the tree.
+     * @return number of documentation enums
+     */
+    public int getDocumentationCount() {
+        return this.packages * (this.metersPerPackage + this.observationsPerPackage);
+    }
+
+    public static String packageName(int p) {
+        return BASE_PACKAGE + ".p" + p;
+    }
+
+    public static String tagsClassName(int p) {
+        return "Tags" + letters(p);
+    }
+
+    public static String eventsClassName(int p) {
+        return "Events" + letters(p);
+    }
+
+    public static String metersClassName(int m) {
+        return "Meters" + letters(m);
+    }
+
+    public static String observationsClassName(int o) {
+        return "Observations" + letters(o);
+    }
+
+    public static String conventionClassName(int o) {
+        return observationsClassName(o) + "Convention";
+    }
+
+    /**
+     * Return the prefix of the meter names of a meter documentation enum.
+     * @param p package index
+     * @param m meter documentation enum index
+     * @return meter name prefix
+     */
+    public static String meterNamePrefix(int p, int m) {
+        return "synthetic.p" + p + ".m" + m;
+    }
+
+    /**
+     * Return the prefix of the observation names of an observation documentation enum.
+     * @param p package index
+     * @param o observation documentation enum index
+     * @return observation name prefix
+     */
+    public static String observationNamePrefix(int p, int o) {
+        return "synthetic.p" + p + ".o" + o;
+    }
+
+    /**
+     * Recursively delete the given directory.
+     * @param root directory to delete
+     */
+    public static void delete(Path root) {
+        if (!Files.exists(root)) {
+            return;
+        }
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    Files.delete(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                    Files.delete(dir);
+                    return FileVisitResult.CONTINUE;
+                }
+
+            });
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private String tagsSource(int p) {
+        StringBuilder sb = new StringBuilder();
+        appendHeader(sb, p, false, "io.micrometer.common.docs.KeyName");
+        sb.append("/**\n * Tags shared by the documentation enums in package ").append(p).append(".\n */\n");
+        sb.append("public enum ").append(tagsClassName(p)).append(" implements KeyName {\n\n");
+        appendKeyName(sb, INDENT, "OPERATION", "p" + p + ".operation", true);
+        sb.append(",\n\n");
+        appendKeyName(sb, INDENT, "OUTCOME", "p" + p + ".outcome", true);
+        sb.append(",\n\n");
+        appendKeyName(sb, INDENT, "REGION", "p" + p + ".region", false);
+        sb.append("\n\n}\n");
+        return sb.toString();
+    }
+
+    private String eventsSource(int p) {
+        StringBuilder sb = new StringBuilder();
+        appendHeader(sb, p, false, "io.micrometer.common.docs.KeyName", "io.micrometer.observation.Observation");
+        sb.append("/**\n * Events shared by the observation enums in package ").append(p).append(".\n */\n");
+        sb.append("public enum ").append(eventsClassName(p)).append(" implements Observation.Event {\n\n");
+        appendJavadoc(sb, INDENT, "p" + p + ".started");
+        appendEvent(sb, "STARTED", "p" + p + ".started");
+        sb.append(",\n\n");
+        appendEvent(sb, "FAILED", "p" + p + ".failed");
+        sb.append("\n\n}\n");
+        return sb.toString();
+    }
+
+    private String metersSource(int p, int m) {
+        String prefix = meterNamePrefix(p, m);
+        String lowTags = nestedPath() + "LowTags";
+
+        StringBuilder sb = new StringBuilder();
+        appendHeader(sb, p, true, "io.micrometer.common.docs.KeyName", "io.micrometer.core.instrument.Meter",
+                "io.micrometer.core.instrument.docs.MeterDocumentation");
+        sb.append("/**\n * Meters of component ").append(m).append(" in package ").append(p).append(".\n */\n");
+        sb.append("public enum ").append(metersClassName(m)).append(" implements MeterDocumentation {\n\n");
+        appendConstant(sb, "REQUESTS", prefix + ".requests", "String getName()", quote(prefix + ".requests"),
+                "Meter.Type getType()", "Meter.Type.COUNTER", "KeyName[] getKeyNames()", mergedKeyNames(p, lowTags));
+        sb.append(",\n\n");
+        appendConstant(sb, "LATENCY", prefix + ".latency", "String getName()", quote(prefix + ".latency"),
+                "Meter.Type getType()", "Meter.Type.TIMER", "KeyName[] getKeyNames()", lowTags + ".values()");
+        sb.append(",\n\n");
+        appendConstant(sb, "PAYLOAD", prefix + ".payload", "String getName()", quote(prefix + ".payload"),
+                "Meter.Type getType()", "Meter.Type.DISTRIBUTION_SUMMARY", "String getBaseUnit()", quote("bytes"),
+                "KeyName[] getKeyNames()", mergedKeyNames(p, lowTags));
+        sb.append(";\n\n");
+        appendNestedTags(sb, INDENT, 1, (indent) -> appendTagEnum(sb, indent, "LowTags", prefix + ".status"));
+        sb.append("\n}\n");
+        return sb.toString();
+    }
+
+    private String observationsSource(int p, int o) {
+        String prefix = observationNamePrefix(p, o);
+        String lowTags = nestedPath() + "LowTags";
+        String highTags = nestedPath() + "HighTags";
+        String conventionType = "Class<? extends ObservationConvention<? extends Observation.Context>> "
+                + "getDefaultConvention()";
+        String previousEvents = eventsClassName((p > 0) ? p - 1 : p);
+
+        StringBuilder sb = new StringBuilder();
+        appendHeader(sb, p, true, "io.micrometer.common.docs.KeyName",
+                "io.micrometer.observation.Observation",
+                "io.micrometer.observation.ObservationConvention",
+                "io.micrometer.observation.docs.ObservationDocumentation");
+        sb.append("/**\n * Observations of component ").append(o).append(" in package ").append(p).append(".\n */\n");
+        sb.append("public enum ").append(observationsClassName(o)).append(" implements ObservationDocumentation {\n\n");
+        appendConstant(sb, "CALLS", prefix + ".calls", "String getName()", quote(prefix + ".calls"),
+                "String getContextualName()", quote(prefix + ".calls span"), "KeyName[] getLowCardinalityKeyNames()",
+                mergedKeyNames(p, lowTags), "KeyName[] getHighCardinalityKeyNames()", highTags + ".values()",
+                "Observation.Event[] getEvents()", eventsClassName(p) + ".values()");
+        sb.append(",\n\n");
+        appendConstant(sb, "CONVENTION_CALLS", prefix + ".convention-calls", conventionType,
+                conventionClassName(o) + ".class", "KeyName[] getLowCardinalityKeyNames()", lowTags + ".values()",
+                "Observation.Event[] getEvents()", previousEvents + ".values()");
+        sb.append(";\n\n");
+        appendNestedTags(sb, INDENT, 1, (indent) -> {
+            appendTagEnum(sb, indent, "LowTags", prefix + ".status");
+            sb.append('\n');
+            appendTagEnum(sb, indent, "HighTags", prefix + ".id");
+        });
+        sb.append("\n}\n");
+        return sb.toString();
+    }
+
+    // ConventionBase <- ConventionLevelA <- ConventionLevelB ... <- Observations<X>Convention
+    private String conventionLevelSource(int p, int level) {
+        StringBuilder sb = new StringBuilder();
+        if (level == 0) {
+            appendHeader(sb, p, false, "io.micrometer.observation.Observation",
+                    "io.micrometer.observation.ObservationConvention");
+            sb.append("public abstract class ").append(conventionLevelClassName(level));
+            sb.append(" implements ObservationConvention<Observation.Context> {\n\n");
+            appendConventionMethods(sb, "synthetic.p" + p + ".convention");
+        }
+        else {
+            appendHeader(sb, p, false);
+            sb.append("public abstract class ").append(conventionLevelClassName(level));
+            sb.append(" extends ").append(conventionLevelClassName(level - 1)).append(" {\n\n");
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private String conventionSource(int p, int o) {
+        StringBuilder sb = new StringBuilder();
+        if (this.conventionDepth == 1) {
+            appendHeader(sb, p, false, "io.micrometer.observation.Observation",
+                    "io.micrometer.observation.ObservationConvention");
+            sb.append("public class ").append(conventionClassName(o));
+            sb.append(" implements ObservationConvention<Observation.Context> {\n\n");
+            appendConventionMethods(sb, observationNamePrefix(p, o) + ".convention");
+        }
+        else {
+            appendHeader(sb, p, false);
+            sb.append("public class ").append(conventionClassName(o));
+            sb.append(" extends ").append(conventionLevelClassName(this.conventionDepth - 2)).append(" {\n\n");
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private void appendHeader(StringBuilder sb, int p, boolean importPreviousPackage, String... imports) {
+        sb.append("package ").append(packageName(p)).append(";\n\n");
+        for (String anImport : imports) {
+            sb.append("import ").append(anImport).append(";\n");
+        }
+        if (importPreviousPackage && p > 0) {
+            String previousPackage = packageName(p - 1);
+            if (this.wildcardImports) {
+                sb.append("import ").append(previousPackage).append(".*;\n");
+            }
+            else {
+                sb.append("import ").append(previousPackage).append('.').append(tagsClassName(p - 1)).append(";\n");
+                sb.append("import ").append(previousPackage).append('.').append(eventsClassName(p - 1)).append(";\n");
+            }
+        }
+        if (imports.length > 0) {
+            sb.append('\n');
+        }
+    }
+
+    private String mergedKeyNames(int p, String lowTags) {
+        StringBuilder sb = new StringBuilder("KeyName.merge(");
+        sb.append(lowTags).append(".values(), ").append(tagsClassName(p)).append(".values()");
+        if (p > 0) {
+            sb.append(", ").append(tagsClassName(p - 1)).append(".values()");
+        }
+        return sb.append(")").toString();
+    }
+
+    private String nestedPath() {
+        StringBuilder sb = new StringBuilder();
+        for (int level = 1; level < this.nestingDepth; level++) {
+            sb.append(nestedClassName(level)).append('.');
+        }
+        return sb.toString();
+    }
+
+    private void appendNestedTags(StringBuilder sb, String indent, int level, Consumer<String> innermost) {
+        if (level == this.nestingDepth) {
+            innermost.accept(indent);
+            return;
+        }
+        sb.append(indent).append("static class ").append(nestedClassName(level)).append(" {\n\n");
+        appendNestedTags(sb, indent + INDENT, level + 1, innermost);
+        sb.append('\n').append(indent).append("}\n");
+    }
+
+    private static void appendTagEnum(StringBuilder sb, String indent, String className, String keyName) {
+        sb.append(indent).append("enum ").append(className).append(" implements KeyName {\n\n");
+        appendKeyName(sb, indent + INDENT, "VALUE", keyName, true);
+        sb.append("\n\n").append(indent).append("}\n");
+    }
+
+    private static void appendConstant(StringBuilder sb, String constant, String documented, String... methods) {
+        appendJavadoc(sb, INDENT, documented);
+        sb.append(INDENT).append(constant).append(" {\n");
+        for (int i = 0; i < methods.length; i += 2) {
+            if (i > 0) {
+                sb.append('\n');
+            }
+            appendMethod(sb, INDENT, methods[i], methods[i + 1]);
+        }
+        sb.append(INDENT).append("}");
+    }
+
+    private static void appendKeyName(StringBuilder sb, String indent, String constant, String name,
+            boolean documented) {
+        if (documented) {
+            appendJavadoc(sb, indent, name);
+        }
+        sb.append(indent).append(constant).append(" {\n");
+        appendMethod(sb, indent, "String asString()", quote(name));
+        sb.append(indent).append("}");
+    }
+
+    private static void appendEvent(StringBuilder sb, String constant, String name) {
+        sb.append(INDENT).append(constant).append(" {\n");
+        appendMethod(sb, INDENT, "String getName()", quote(name));
+        sb.append('\n');
+        appendMethod(sb, INDENT, "String getContextualName()", quote(name.replace('.', ' ')));
+        sb.append(INDENT).append("}");
+    }
+
+    private static void appendConventionMethods(StringBuilder sb, String name) {
+        appendMethod(sb, "", "String getName()", quote(name));
+        sb.append('\n');
+        appendMethod(sb, "", "boolean supportsContext(Observation.Context context)", "true");
+        sb.append('\n');
+    }
+
+    private static void appendJavadoc(StringBuilder sb, String indent, String name) {
+        sb.append(indent).append("/**\n");
+        sb.append(indent).append(" * Documentation of {@code ").append(name).append("} with <b>bold</b> and\n");
+        sb.append(indent).append(" * <i>italic</i> text, see {@link KeyName}.\n");
+        sb.append(indent).append(" * <p>\n");
+        sb.append(indent).append(" * The values are:\n");
+        sb.append(indent).append(" * <ul>\n");
+        sb.append(indent).append(" * <li>{@code success}</li>\n");
+        sb.append(indent).append(" * <li>{@code failure}</li>\n");
+        sb.append(indent).append(" * </ul>\n");
+        sb.append(indent).append(" */\n");
+    }
+
+    private static void appendMethod(StringBuilder sb, String indent, String signature, String returnValue) {
+        sb.append(indent).append(INDENT).append("@Override\n");
+        sb.append(indent).append(INDENT).append("public ").append(signature).append(" {\n");
+        sb.append(indent).append(INDENT).append(INDENT).append("return ").append(returnValue).append(";\n");
+        sb.append(indent).append(INDENT).append("}\n");
+    }
+
+    private static String conventionLevelClassName(int level) {
+        return (level == 0) ? "ConventionBase" : "ConventionLevel" + letters(level - 1);
+    }
+
+    private static String nestedClassName(int level) {
+        return "Nested" + letters(level - 1);
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+
+    private static Path write(Path dir, String className, String content) {
+        Path path = dir.resolve(className + ".java");
+        try {
+            Files.createDirectories(dir);
+            Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return path;
+    }
+
+    // 0 -> "A", 25 -> "Z", 26 -> "BA"
+    private static String letters(int value) {
+        StringBuilder sb = new StringBuilder();
+        int remaining = value;
+        do {
+            sb.append((char) ('A' + remaining % 26));
+            remaining /= 26;
+        }
+        while (remaining > 0);
+        return sb.reverse().toString();
+    }
+
+    /**
+     * Builder for {@link SyntheticSourceTree}.
+     */
+    public static final class Builder {
+
+        private int packages = 10;
+
+        private int metersPerPackage = 5;
+
+        private int observationsPerPackage = 5;
+
+        private int nestingDepth = 1;
+
+        private boolean wildcardImports = true;
+
+        private int conventionDepth = 2;
+
+        private Builder() {
+        }
+
+        /**
+         * Set the number of packages.
+         * @param packages number of packages
+         * @return this builder
+         */
+        public Builder packages(int packages) {
+            this.packages = requireAtLeast(packages, 1, "packages");
+            return this;
+        }
+
+        /**
+         * Set the number of meter documentation enums in each package.
+         * @param metersPerPackage number of meter documentation enums
+         * @return this builder
+         */
+        public Builder metersPerPackage(int metersPerPackage) {
+            this.metersPerPackage = requireAtLeast(metersPerPackage, 0, "metersPerPackage");
+            return this;
+        }
+
+        /**
+         * Set the number of observation documentation enums in each package.
+         * @param observationsPerPackage number of observation documentation enums
+         * @return this builder
+         */
+        public Builder observationsPerPackage(int observationsPerPackage) {
+            this.observationsPerPackage = requireAtLeast(observationsPerPackage, 0, "observationsPerPackage");
+            return this;
+        }
+
+        /**
+         * Set the nesting depth of the tag enums in the documentation enums. {@code 1}
+         * declares them directly in the documentation enum, {@code 2} in a nested holder
+         * class, and so on.
+         * @param nestingDepth nesting depth
+         * @return this builder
+         */
+        public Builder nestingDepth(int nestingDepth) {
+            this.nestingDepth = requireAtLeast(nestingDepth, 1, "nestingDepth");
+            return this;
+        }
+
+        /**
+         * Set whether the tags of the previous package are imported with a wildcard
+         * import or a single type import.
+         * @param wildcardImports {@code true} to use wildcard imports
+         * @return this builder
+         */
+        public Builder wildcardImports(boolean wildcardImports) {
+            this.wildcardImports = wildcardImports;
+            return this;
+        }
+
+        /**
+         * Set the depth of the convention hierarchy. {@code 1} declares the name in the
+         * default convention class itself, {@code 2} in its parent class, and so on.
+         * @param conventionDepth convention hierarchy depth
+         * @return this builder
+         */
+        public Builder conventionDepth(int conventionDepth) {
+            this.conventionDepth = requireAtLeast(conventionDepth, 1, "conventionDepth");
+            return this;
+        }
+
+        public SyntheticSourceTree build() {
+            return new SyntheticSourceTree(this);
+        }
+
+        private static int requireAtLeast(int value, int min, String name) {
+            if (value < min) {
+                throw new IllegalArgumentException(name + " must be at least " + min + " but was " + value);
+            }
+            return value;
+        }
+
+    }
+
+}